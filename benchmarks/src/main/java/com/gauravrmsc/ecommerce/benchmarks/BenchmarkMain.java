@@ -0,0 +1,32 @@
+package com.gauravrmsc.ecommerce.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH with the usual command line, but writes the results as JSON to
+ * {@code jmh-result.json} unless {@code -rf} or {@code -rff} say otherwise, so every run leaves a
+ * file that can be compared with the run from another commit.
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+        || commandLine.shouldListResultFormats()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+    if (!commandLine.getResultFormat().hasValue()) {
+      options.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLine.getResult().hasValue()) {
+      options.result("jmh-result.json");
+    }
+    new Runner(options.build()).run();
+  }
+}
@@ -0,0 +1,72 @@
+package com.gauravrmsc.ecommerce.benchmarks;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cart mutations and order creation on carts of growing size. The item touched is the last one
+ * in the cart, the worst case for the line lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CartBenchmark {
+  @Param({"10", "1000", "10000"})
+  int lines;
+
+  private Cart cart;
+  private Item lastItem;
+  private Item newItem;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    List<Item> items = Fixtures.items(lines);
+    cart = Fixtures.cart(items);
+    lastItem = items.get(items.size() - 1);
+    newItem = new Item((long) lines + 1, "New item", new BigDecimal("1.50"), "Not in the cart");
+  }
+
+  @Benchmark
+  public Cart addExistingItem() {
+    cart.addItem(lastItem);
+    return cart;
+  }
+
+  @Benchmark
+  public Cart addAndRemoveNewItem() {
+    cart.addItem(newItem);
+    cart.removeItem(newItem);
+    return cart;
+  }
+
+  @Benchmark
+  public Cart removeAndAddExistingItem() {
+    cart.removeItem(lastItem, 2);
+    cart.addItem(lastItem, 2);
+    return cart;
+  }
+
+  @Benchmark
+  public UserOrder createOrderFromCart() {
+    return UserOrder.createFromCart(cart);
+  }
+}
@@ -0,0 +1,37 @@
+package com.gauravrmsc.ecommerce.benchmarks;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+
+  private Fixtures() {
+  }
+
+  static List<Item> items(int count) {
+    List<Item> items = new ArrayList<>(count);
+    for (long id = 1; id <= count; id++) {
+      items.add(new Item(id, "Item " + id, new BigDecimal("2.99").add(BigDecimal.valueOf(id)),
+          "Description of item " + id));
+    }
+    return items;
+  }
+
+  /** A cart with one line per item, attached to a user the way the controllers see it. */
+  static Cart cart(List<Item> items) {
+    User user = new User("benchmark", "not-a-real-hash");
+    user.setId(1);
+    Cart cart = new Cart();
+    cart.setId(1l);
+    cart.setUser(user);
+    user.setCart(cart);
+    for (Item item : items) {
+      cart.addItem(item, 2);
+    }
+    return cart;
+  }
+}
@@ -0,0 +1,65 @@
+package com.gauravrmsc.ecommerce.benchmarks;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.gauravrmsc.ecommerce.security.JwtTokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * Token issue and verification. {@code createToken} mirrors JwtAuthenticationFilter on login;
+ * {@code verifyCachedToken} is what JwtAuthenticationVerificationFilter does for a token it has
+ * seen before, {@code verifyToken} the full HMAC check for one it has not.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+  private JWTVerifier verifier;
+  private JwtTokenVerifier jwtTokenVerifier;
+  private String header;
+
+  @Setup
+  public void setUp() {
+    verifier = JWT.require(Algorithm.HMAC512(SECRET.getBytes())).build();
+    jwtTokenVerifier = new JwtTokenVerifier(1000, new SimpleMeterRegistry());
+    header = TOKEN_PREFIX + createToken();
+  }
+
+  @Benchmark
+  public String createToken() {
+    return JWT.create().withSubject("benchmark")
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512(SECRET.getBytes()));
+  }
+
+  @Benchmark
+  public String verifyToken() {
+    return verifier.verify(header.replace(TOKEN_PREFIX, "")).getSubject();
+  }
+
+  @Benchmark
+  public String verifyCachedToken() {
+    return jwtTokenVerifier.verify(header.replace(TOKEN_PREFIX, ""));
+  }
+}
@@ -0,0 +1,72 @@
+package com.gauravrmsc.ecommerce.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import com.gauravrmsc.ecommerce.model.responses.CartResponse;
+import com.gauravrmsc.ecommerce.model.responses.OrderResponse;
+import com.gauravrmsc.ecommerce.model.responses.SparseFields;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson serialization of the cart and order responses the controllers return, in each wire
+ * format, next to the entity graphs they used to return.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+  @Param({"10", "1000"})
+  int lines;
+
+  @Param({"json", "smile", "cbor"})
+  String format;
+
+  private ObjectMapper mapper;
+  private Cart cart;
+  private UserOrder order;
+
+  @Setup
+  public void setUp() {
+    JsonFactory factory = format.equals("smile") ? new SmileFactory()
+        : format.equals("cbor") ? new CBORFactory() : new JsonFactory();
+    mapper = new ObjectMapper(factory).findAndRegisterModules().setFilterProvider(
+        new SimpleFilterProvider().addFilter(SparseFields.FILTER_ID, SparseFields.ALL));
+    cart = Fixtures.cart(Fixtures.items(lines));
+    order = UserOrder.createFromCart(cart);
+  }
+
+  @Benchmark
+  public byte[] serializeCart() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(CartResponse.of(cart));
+  }
+
+  @Benchmark
+  public byte[] serializeOrder() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(OrderResponse.of(order));
+  }
+
+  @Benchmark
+  public byte[] serializeCartEntity() throws JsonProcessingException {
+    return mapper.writeValueAsBytes(cart);
+  }
+}
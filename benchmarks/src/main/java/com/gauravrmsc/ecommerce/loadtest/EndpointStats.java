@@ -0,0 +1,36 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies of one endpoint. Service time runs from when the request was actually sent; response
+ * time runs from when the scenario intended to send it, so time spent waiting behind a slow
+ * server is not silently left out (coordinated omission).
+ */
+class EndpointStats {
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  final String name;
+  final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+  final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+  final LongAdder errors = new LongAdder();
+
+  EndpointStats(String name) {
+    this.name = name;
+  }
+
+  void record(long intendedNanos, long sentNanos, long doneNanos, boolean error) {
+    serviceTime.recordValue(clamp(doneNanos - sentNanos));
+    responseTime.recordValue(clamp(doneNanos - intendedNanos));
+    if (error) {
+      errors.increment();
+    }
+  }
+
+  private static long clamp(long nanos) {
+    return Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), HIGHEST_TRACKABLE_MICROS);
+  }
+}
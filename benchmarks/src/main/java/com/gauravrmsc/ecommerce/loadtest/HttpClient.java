@@ -0,0 +1,75 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/** Minimal blocking HTTP client on HttpURLConnection, which keeps connections alive. */
+class HttpClient {
+  private final String baseUrl;
+
+  HttpClient(String baseUrl) {
+    this.baseUrl = baseUrl;
+  }
+
+  Response get(String path, String authorization) throws IOException {
+    return send("GET", path, authorization, null);
+  }
+
+  Response post(String path, String authorization, String json) throws IOException {
+    return send("POST", path, authorization, json);
+  }
+
+  private Response send(String method, String path, String authorization, String json)
+      throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+    connection.setRequestMethod(method);
+    connection.setConnectTimeout(10_000);
+    connection.setReadTimeout(60_000);
+    if (authorization != null) {
+      connection.setRequestProperty("Authorization", authorization);
+    }
+    if (json != null) {
+      byte[] body = json.getBytes(StandardCharsets.UTF_8);
+      connection.setDoOutput(true);
+      connection.setRequestProperty("Content-Type", "application/json");
+      connection.setFixedLengthStreamingMode(body.length);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body);
+      }
+    }
+    int status = connection.getResponseCode();
+    InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+    // Reading the body to the end lets the connection go back to the keep-alive pool.
+    byte[] responseBody = in == null ? new byte[0] : readFully(in);
+    return new Response(status, connection.getHeaderField("Authorization"),
+        new String(responseBody, StandardCharsets.UTF_8));
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException {
+    try (InputStream input = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      for (int read; (read = input.read(buffer)) != -1; ) {
+        out.write(buffer, 0, read);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  static class Response {
+    final int status;
+    final String authorization;
+    final String body;
+
+    Response(int status, String authorization, String body) {
+      this.status = status;
+      this.authorization = authorization;
+      this.body = body;
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+
+/** Throughput and latency percentiles per endpoint, as a console table and as JSON. */
+class LoadReport {
+  private static final double[] PERCENTILES = {50, 99, 99.9};
+
+  private final Scenario scenario;
+  private final Collection<EndpointStats> endpoints;
+  private final long abortedSessions;
+  private Map<String, Object> memory;
+
+  LoadReport(Scenario scenario, Collection<EndpointStats> endpoints, long abortedSessions) {
+    this.scenario = scenario;
+    this.endpoints = endpoints;
+    this.abortedSessions = abortedSessions;
+  }
+
+  /** Only set when the application ran in this JVM, see {@link MemorySampler}. */
+  void setMemory(Map<String, Object> memory) {
+    this.memory = memory;
+  }
+
+  void print(PrintStream out) {
+    out.printf("%nScenario %s (%s model, %d s measured, %d aborted sessions)%n", scenario.name,
+        scenario.model, scenario.durationSeconds, abortedSessions);
+    out.printf("%-14s %9s %7s %9s | %29s | %29s%n", "endpoint", "requests", "errors", "req/s",
+        "response time p50/p99/p999 ms", "service time p50/p99/p999 ms");
+    for (EndpointStats endpoint : endpoints) {
+      out.printf("%-14s %9d %7d %9.1f | %29s | %29s%n", endpoint.name,
+          endpoint.responseTime.getTotalCount(), endpoint.errors.sum(), throughput(endpoint),
+          percentiles(endpoint.responseTime), percentiles(endpoint.serviceTime));
+    }
+    if (memory != null) {
+      out.printf("memory: %.1f MB RSS at start, %.1f MB peak, %.1f KB per connection;"
+              + " %.1f MB peak heap; %d peak platform threads%n", memory.get("baselineRssMb"),
+          memory.get("peakRssMb"), memory.get("rssGrowthPerConnectionKb"),
+          memory.get("peakHeapUsedMb"), memory.get("peakPlatformThreads"));
+    }
+  }
+
+  void write(File file) throws IOException {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("scenario", scenario.name);
+    report.put("model", scenario.model);
+    report.put("durationSeconds", scenario.durationSeconds);
+    report.put("abortedSessions", abortedSessions);
+    List<Map<String, Object>> rows = new ArrayList<>();
+    for (EndpointStats endpoint : endpoints) {
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("endpoint", endpoint.name);
+      row.put("requests", endpoint.responseTime.getTotalCount());
+      row.put("errors", endpoint.errors.sum());
+      row.put("throughputPerSecond", throughput(endpoint));
+      row.put("responseTimeMillis", percentileMap(endpoint.responseTime));
+      row.put("serviceTimeMillis", percentileMap(endpoint.serviceTime));
+      rows.add(row);
+    }
+    report.put("endpoints", rows);
+    if (memory != null) {
+      report.put("memory", memory);
+    }
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+  }
+
+  private double throughput(EndpointStats endpoint) {
+    return endpoint.responseTime.getTotalCount() / (double) scenario.durationSeconds;
+  }
+
+  private static String percentiles(Histogram histogram) {
+    StringBuilder text = new StringBuilder();
+    for (double percentile : PERCENTILES) {
+      if (text.length() > 0) {
+        text.append(" / ");
+      }
+      text.append(String.format("%.2f", millis(histogram.getValueAtPercentile(percentile))));
+    }
+    return text.toString();
+  }
+
+  private static Map<String, Object> percentileMap(Histogram histogram) {
+    Map<String, Object> values = new LinkedHashMap<>();
+    values.put("p50", millis(histogram.getValueAtPercentile(50)));
+    values.put("p99", millis(histogram.getValueAtPercentile(99)));
+    values.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+    values.put("max", millis(histogram.getMaxValue()));
+    values.put("mean", histogram.getMean() / 1000.0);
+    return values;
+  }
+
+  private static double millis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,193 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.loadtest.Scenario.Action;
+import com.gauravrmsc.ecommerce.loadtest.Scenario.Model;
+import com.gauravrmsc.ecommerce.loadtest.Scenario.Step;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link Scenario} against a running server and collects per-endpoint latencies.
+ *
+ * <p>Every request has an intended start time: the scheduled start of its session for the first
+ * request, and the end of the previous request plus think time after that. In the open model
+ * sessions are scheduled at a fixed arrival rate; in the closed model at the user's pacing
+ * interval. A session that could not start on time because the driver or server was backed up is
+ * therefore charged for the wait in its response time.
+ */
+class LoadTest {
+  private static final long DRAIN_SECONDS = 60;
+
+  private final Scenario scenario;
+  private final HttpClient http;
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Map<Action, EndpointStats> stats = new EnumMap<>(Action.class);
+  private final AtomicLong userSequence = new AtomicLong();
+  private final LongAdder abortedSessions = new LongAdder();
+  private final String runId = Long.toString(System.currentTimeMillis(), 36);
+  private long measureFromNanos;
+  private long measureUntilNanos;
+
+  LoadTest(Scenario scenario, String baseUrl) {
+    this.scenario = scenario;
+    this.http = new HttpClient(baseUrl);
+    for (Step step : scenario.steps) {
+      stats.computeIfAbsent(step.action, action -> new EndpointStats(action.name()));
+    }
+  }
+
+  LoadReport run() throws InterruptedException {
+    long start = System.nanoTime();
+    measureFromNanos = start + TimeUnit.SECONDS.toNanos(scenario.warmupSeconds);
+    measureUntilNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(scenario.durationSeconds);
+    if (scenario.model == Model.OPEN) {
+      runOpen(start);
+    } else {
+      runClosed(start);
+    }
+    return new LoadReport(scenario, stats.values(), abortedSessions.sum());
+  }
+
+  private void runClosed(long start) throws InterruptedException {
+    ExecutorService users = Executors.newFixedThreadPool(scenario.users);
+    long pacingNanos = TimeUnit.MILLISECONDS.toNanos(scenario.sessionPacingMillis);
+    for (int user = 0; user < scenario.users; user++) {
+      users.execute(() -> {
+        long next = start;
+        while (true) {
+          long intended = pacingNanos > 0 ? next : System.nanoTime();
+          if (intended - measureUntilNanos >= 0) {
+            return;
+          }
+          sleepUntil(intended);
+          runSession(intended);
+          next += pacingNanos;
+        }
+      });
+    }
+    drain(users);
+  }
+
+  private void runOpen(long start) throws InterruptedException {
+    ThreadPoolExecutor sessions = new ThreadPoolExecutor(scenario.maxConcurrentSessions,
+        scenario.maxConcurrentSessions, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    double intervalNanos = TimeUnit.SECONDS.toNanos(1) / scenario.arrivalsPerSecond;
+    for (long arrival = 0; ; arrival++) {
+      long intended = start + (long) (arrival * intervalNanos);
+      if (intended - measureUntilNanos >= 0) {
+        break;
+      }
+      sleepUntil(intended);
+      sessions.execute(() -> runSession(intended));
+    }
+    drain(sessions);
+  }
+
+  private void drain(ExecutorService executor) throws InterruptedException {
+    executor.shutdown();
+    if (!executor.awaitTermination(
+        scenario.durationSeconds + scenario.warmupSeconds + DRAIN_SECONDS, TimeUnit.SECONDS)) {
+      executor.shutdownNow();
+    }
+  }
+
+  private void runSession(long sessionStart) {
+    Session session = new Session();
+    long intended = sessionStart;
+    for (Step step : scenario.steps) {
+      for (int i = 0; i < step.repeat; i++) {
+        long sent = System.nanoTime();
+        boolean ok = execute(step, session);
+        long done = System.nanoTime();
+        if (intended - measureFromNanos >= 0 && intended - measureUntilNanos < 0) {
+          stats.get(step.action).record(intended, sent, done, !ok);
+        }
+        if (!ok) {
+          // Later steps depend on this one (user, token, cart), so there is no point going on.
+          abortedSessions.increment();
+          return;
+        }
+        if (scenario.thinkTimeMillis > 0) {
+          sleepUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(scenario.thinkTimeMillis));
+        }
+        intended = System.nanoTime();
+      }
+    }
+  }
+
+  private boolean execute(Step step, Session session) {
+    try {
+      HttpClient.Response response;
+      switch (step.action) {
+        case CREATE_USER:
+          session.username = "load-" + runId + "-" + userSequence.incrementAndGet();
+          Map<String, Object> user = new HashMap<>();
+          user.put("username", session.username);
+          user.put("password", scenario.password);
+          user.put("confirmPassword", scenario.password);
+          response = http.post("/api/user/create", null, json(user));
+          break;
+        case LOGIN:
+          Map<String, Object> credentials = new HashMap<>();
+          credentials.put("username", session.username);
+          credentials.put("password", scenario.password);
+          response = http.post("/login", null, json(credentials));
+          session.token = response.authorization;
+          break;
+        case BROWSE_ITEMS:
+          response = http.get("/api/item", session.token);
+          break;
+        case VIEW_ITEM:
+          response = http.get("/api/item/" + randomItemId(), session.token);
+          break;
+        case ADD_TO_CART:
+          Map<String, Object> line = new HashMap<>();
+          line.put("username", session.username);
+          line.put("itemId", randomItemId());
+          line.put("quantity", step.quantity);
+          response = http.post("/api/cart/addToCart", session.token, json(line));
+          break;
+        case SUBMIT_ORDER:
+          response = http.post("/api/order/submit/" + session.username, session.token, null);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown action " + step.action);
+      }
+      return response.status < 400;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private long randomItemId() {
+    return scenario.itemIds.get(ThreadLocalRandom.current().nextInt(scenario.itemIds.size()));
+  }
+
+  private String json(Object value) throws JsonProcessingException {
+    return mapper.writeValueAsString(value);
+  }
+
+  private static void sleepUntil(long deadlineNanos) {
+    for (long remaining; (remaining = deadlineNanos - System.nanoTime()) > 0; ) {
+      LockSupport.parkNanos(remaining);
+    }
+  }
+
+  private static final class Session {
+    private String username;
+    private String token;
+  }
+}
@@ -0,0 +1,92 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.ECommerceApplication;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs a load test scenario. Unless {@code --base-url=} points at a running server, the
+ * application is started in this JVM on a random port with a fresh in-memory H2 database.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.gauravrmsc.ecommerce.loadtest.LoadTestMain \
+ *     scenarios/checkout-open.json [--base-url=http://host:8080] [--out=load-result.json] \
+ *     [--property=virtual-threads.enabled=true ...]
+ * </pre>
+ *
+ * {@code --property=} overrides the scenario's application properties. For an in-process run the
+ * report includes this JVM's memory use, see {@link MemorySampler}.
+ */
+public class LoadTestMain {
+
+  public static void main(String[] args) throws Exception {
+    String scenarioFile = null;
+    String baseUrl = null;
+    String out = "load-result.json";
+    Map<String, Object> overrides = new HashMap<>();
+    for (String arg : args) {
+      if (arg.startsWith("--base-url=")) {
+        baseUrl = arg.substring("--base-url=".length());
+      } else if (arg.startsWith("--out=")) {
+        out = arg.substring("--out=".length());
+      } else if (arg.startsWith("--property=")
+          && arg.indexOf('=', "--property=".length()) > 0) {
+        int separator = arg.indexOf('=', "--property=".length());
+        overrides.put(arg.substring("--property=".length(), separator),
+            arg.substring(separator + 1));
+      } else {
+        scenarioFile = arg;
+      }
+    }
+    if (scenarioFile == null) {
+      System.err.println("usage: LoadTestMain <scenario.json> [--base-url=URL] [--out=FILE]"
+          + " [--property=KEY=VALUE ...]");
+      System.exit(2);
+    }
+    Scenario scenario = new ObjectMapper().readValue(new File(scenarioFile), Scenario.class);
+    // HttpURLConnection keeps at most this many idle connections per host.
+    System.setProperty("http.maxConnections",
+        Integer.toString(Math.max(scenario.users, scenario.maxConcurrentSessions)));
+    int connections = scenario.model == Scenario.Model.CLOSED
+        ? scenario.users : scenario.maxConcurrentSessions;
+
+    ConfigurableApplicationContext application = null;
+    if (baseUrl == null) {
+      Map<String, Object> properties = new HashMap<>(scenario.properties);
+      properties.putAll(overrides);
+      properties.put("server.port", "0");
+      properties.put("spring.datasource.url",
+          "jdbc:h2:mem:load-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+      // As command line arguments, so that they take precedence over application.properties.
+      List<String> arguments = new ArrayList<>();
+      properties.forEach((key, value) -> arguments.add("--" + key + "=" + value));
+      application = new SpringApplicationBuilder(ECommerceApplication.class)
+          .run(arguments.toArray(new String[0]));
+      baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+    }
+    try {
+      MemorySampler memory = application == null ? null : new MemorySampler(connections);
+      if (memory != null) {
+        memory.start();
+      }
+      LoadReport report = new LoadTest(scenario, baseUrl).run();
+      if (memory != null) {
+        report.setMemory(memory.stop());
+      }
+      report.print(System.out);
+      report.write(new File(out));
+      System.out.println("Results written to " + out);
+    } finally {
+      if (application != null) {
+        application.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Samples this JVM's resident set size, heap use and live threads during a run, so that thread
+ * models can be compared by what they cost in memory. The resident set includes thread stacks,
+ * which the heap figures do not; it is read from {@code /proc} and reported as 0 elsewhere.
+ */
+class MemorySampler implements Runnable {
+  private static final Path STATUS = Paths.get("/proc/self/status");
+  private static final long INTERVAL_MILLIS = 100;
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+  private final int connections;
+  private final long baselineRssKb;
+  private final long baselineHeapBytes;
+  private volatile boolean running = true;
+  private long peakRssKb;
+  private long peakHeapBytes;
+  private Thread sampler;
+
+  /** Takes the baseline; {@code connections} is the number of concurrent client sessions. */
+  MemorySampler(int connections) {
+    this.connections = connections;
+    System.gc();
+    baselineRssKb = rssKb();
+    baselineHeapBytes = memory.getHeapMemoryUsage().getUsed();
+    threads.resetPeakThreadCount();
+  }
+
+  void start() {
+    sampler = new Thread(this, "memory-sampler");
+    sampler.setDaemon(true);
+    sampler.start();
+  }
+
+  Map<String, Object> stop() throws InterruptedException {
+    running = false;
+    sampler.join();
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("connections", connections);
+    result.put("baselineRssMb", baselineRssKb / 1024.0);
+    result.put("peakRssMb", peakRssKb / 1024.0);
+    result.put("rssGrowthPerConnectionKb",
+        (double) Math.max(0, peakRssKb - baselineRssKb) / connections);
+    result.put("peakHeapUsedMb", peakHeapBytes / (1024.0 * 1024.0));
+    result.put("heapGrowthPerConnectionKb",
+        Math.max(0, peakHeapBytes - baselineHeapBytes) / 1024.0 / connections);
+    result.put("peakPlatformThreads", threads.getPeakThreadCount());
+    return result;
+  }
+
+  @Override
+  public void run() {
+    while (running) {
+      peakRssKb = Math.max(peakRssKb, rssKb());
+      peakHeapBytes = Math.max(peakHeapBytes, memory.getHeapMemoryUsage().getUsed());
+      try {
+        Thread.sleep(INTERVAL_MILLIS);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  private static long rssKb() {
+    try {
+      for (String line : Files.readAllLines(STATUS)) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("[^0-9]", ""));
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      // Not Linux: only the heap figures are available.
+    }
+    return 0;
+  }
+}
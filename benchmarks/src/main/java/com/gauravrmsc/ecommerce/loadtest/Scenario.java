@@ -0,0 +1,53 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A load test read from a JSON scenario file. Each virtual user session runs {@link #steps} in
+ * order; how sessions are started depends on {@link #model}.
+ */
+public class Scenario {
+
+  public enum Model {
+    /** {@link #users} virtual users each run one session after another. */
+    CLOSED,
+    /** New sessions arrive at {@link #arrivalsPerSecond} no matter how fast the server is. */
+    OPEN
+  }
+
+  public String name = "scenario";
+  public Model model = Model.CLOSED;
+  public int warmupSeconds = 5;
+  public int durationSeconds = 30;
+  /** Closed model: number of virtual users. */
+  public int users = 10;
+  /**
+   * Closed model: each user starts a session at most this often. With pacing, a session that
+   * starts late is charged for the delay, which corrects for coordinated omission.
+   */
+  public long sessionPacingMillis;
+  /** Open model: sessions started per second. */
+  public double arrivalsPerSecond = 10;
+  /** Open model: worker threads available to run sessions. */
+  public int maxConcurrentSessions = 200;
+  public long thinkTimeMillis;
+  public String password = "load-test-password";
+  public List<Long> itemIds = new ArrayList<>(Arrays.asList(1L, 2L));
+  public List<Step> steps = new ArrayList<>();
+  /** Application properties for the in-process server, e.g. a pinned encoder.strength. */
+  public Map<String, String> properties = new LinkedHashMap<>();
+
+  public static class Step {
+    public Action action;
+    public int repeat = 1;
+    public int quantity = 1;
+  }
+
+  public enum Action {
+    CREATE_USER, LOGIN, BROWSE_ITEMS, VIEW_ITEM, ADD_TO_CART, SUBMIT_ORDER
+  }
+}
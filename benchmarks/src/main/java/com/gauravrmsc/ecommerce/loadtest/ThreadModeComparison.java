@@ -0,0 +1,75 @@
+package com.gauravrmsc.ecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a scenario once with Tomcat's thread pool and once with virtual threads
+ * ({@code virtual-threads.enabled}), each in a fresh JVM so that neither run inherits the
+ * other's warmed up code or grown heap, and prints throughput and memory side by side. Virtual
+ * threads need the JVM running this to be Java 21 or later.
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.gauravrmsc.ecommerce.loadtest.ThreadModeComparison \
+ *     scenarios/checkout-many-users.json [-Xmx1g]
+ * </pre>
+ *
+ * Further arguments are passed to both JVMs. The load test client runs in the same JVM as the
+ * server and costs the same in both modes, so the difference between the rows is the server's.
+ */
+public class ThreadModeComparison {
+  private static final String[] MODES = {"platform", "virtual"};
+
+  public static void main(String[] args) throws Exception {
+    if (args.length == 0) {
+      System.err.println("usage: ThreadModeComparison <scenario.json> [JVM options]");
+      System.exit(2);
+    }
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    ObjectMapper mapper = new ObjectMapper();
+    List<JsonNode> results = new ArrayList<>();
+    for (String mode : MODES) {
+      File out = new File("load-" + mode + ".json");
+      List<String> command = new ArrayList<>();
+      command.add(java);
+      for (int i = 1; i < args.length; i++) {
+        command.add(args[i]);
+      }
+      command.add("-cp");
+      command.add(System.getProperty("java.class.path"));
+      command.add(LoadTestMain.class.getName());
+      command.add(args[0]);
+      command.add("--property=virtual-threads.enabled=" + mode.equals("virtual"));
+      command.add("--out=" + out);
+      int status = new ProcessBuilder(command).inheritIO().start().waitFor();
+      if (status != 0) {
+        System.err.println(mode + " run failed with exit status " + status);
+        System.exit(status);
+      }
+      results.add(mapper.readTree(out));
+    }
+
+    System.out.printf("%n%-9s %9s %9s %9s %11s %11s %9s%n", "mode", "req/s", "p99 ms", "errors",
+        "peak RSS MB", "KB per conn", "threads");
+    for (int i = 0; i < MODES.length; i++) {
+      JsonNode result = results.get(i);
+      double throughput = 0;
+      double p99 = 0;
+      long errors = 0;
+      for (JsonNode endpoint : result.get("endpoints")) {
+        throughput += endpoint.get("throughputPerSecond").asDouble();
+        p99 = Math.max(p99, endpoint.get("responseTimeMillis").get("p99").asDouble());
+        errors += endpoint.get("errors").asLong();
+      }
+      JsonNode memory = result.get("memory");
+      System.out.printf("%-9s %9.1f %9.2f %9d %11.1f %11.1f %9d%n", MODES[i], throughput, p99,
+          errors, memory.get("peakRssMb").asDouble(),
+          memory.get("rssGrowthPerConnectionKb").asDouble(),
+          memory.get("peakPlatformThreads").asInt());
+    }
+  }
+}
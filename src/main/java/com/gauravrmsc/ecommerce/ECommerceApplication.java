@@ -1,8 +1,11 @@
 package com.gauravrmsc.ecommerce;
 
+import com.gauravrmsc.ecommerce.security.BCryptStrength;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
@@ -10,14 +13,26 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @EnableJpaRepositories("com.gauravrmsc.ecommerce.model.persistence.repositories")
 @EntityScan("com.gauravrmsc.ecommerce.model.persistence")
-@SpringBootApplication(exclude={SecurityAutoConfiguration.class })
+// The R2DBC pool is only created by the opt-in ReactiveCatalogConfig.
+@SpringBootApplication(exclude={SecurityAutoConfiguration.class, R2dbcAutoConfiguration.class })
 public class ECommerceApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(ECommerceApplication.class, args);
 	}
 	@Bean
-	public BCryptPasswordEncoder getPasswordEncoder() {
-		return new BCryptPasswordEncoder(13);
+	public BCryptStrength getBCryptStrength(@Value("${encoder.strength:0}") int strength,
+			@Value("${encoder.target-millis:250}") long targetMillis,
+			@Value("${encoder.min-strength:10}") int minStrength,
+			@Value("${encoder.max-strength:14}") int maxStrength) {
+		if (strength > 0) {
+			return BCryptStrength.fixed(strength);
+		}
+		return BCryptStrength.calibrate(targetMillis, minStrength, maxStrength);
+	}
+
+	@Bean
+	public BCryptPasswordEncoder getPasswordEncoder(BCryptStrength strength) {
+		return new BCryptPasswordEncoder(strength.getStrength());
 	}
 }
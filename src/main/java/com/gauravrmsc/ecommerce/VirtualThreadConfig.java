@@ -0,0 +1,101 @@
+package com.gauravrmsc.ecommerce;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.apache.catalina.util.ServerInfo;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.tomcat.util.net.SocketWrapperBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in ({@code virtual-threads.enabled=true}, Java 21 or later): Tomcat runs every request on
+ * a new virtual thread instead of its worker pool, so requests blocked in JDBC, or waiting for a
+ * pooled connection, no longer tie up a platform thread each. Repository calls happen on the
+ * request thread and so run virtual too. BCrypt keeps its bounded platform pool, which is what
+ * limits how much CPU hashing may take.
+ *
+ * <p>A virtual thread that blocks inside {@code synchronized} pins its carrier thread, so no
+ * code here may hold a monitor across a JDBC call; caches load outside their locks for that
+ * reason. The Tomcat 9.0.36 that Spring Boot 2.3 manages holds the socket's monitor for the
+ * whole request, so every request would pin; later 9.0 releases (9.0.83, for one) take a
+ * {@code Lock} instead. On a Tomcat without {@code SocketWrapperBase.getLock()}, or a JVM without
+ * virtual threads, requests stay on the worker pool and a warning is logged. The application is
+ * built for Java 8, so both are checked reflectively.
+ */
+@Configuration
+@ConditionalOnProperty(name = "virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig implements DisposableBean {
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+  private final ExecutorService executor;
+
+  public VirtualThreadConfig() {
+    this(newVirtualThreadPerTaskExecutor("http-virtual-"));
+  }
+
+  VirtualThreadConfig(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+    return protocolHandler -> {
+      if (executor != null) {
+        protocolHandler.setExecutor(executor);
+        logger.info("Tomcat requests run on virtual threads");
+      }
+    };
+  }
+
+  @Override
+  public void destroy() {
+    if (executor != null) {
+      executor.shutdown();
+    }
+  }
+
+  /** Null, after a warning, if virtual threads are unavailable or Tomcat would pin them. */
+  static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+    ExecutorService executor;
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+      builder = builderType.getMethod("name", String.class, long.class)
+          .invoke(builder, namePrefix, 0L);
+      ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+      Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor",
+          ThreadFactory.class);
+      executor = (ExecutorService) newExecutor.invoke(null, factory);
+    } catch (ReflectiveOperationException e) {
+      logger.warn("virtual-threads.enabled needs Java 21 or later, not {}; requests stay on "
+          + "Tomcat's thread pool", System.getProperty("java.version"));
+      return null;
+    }
+    if (!tomcatLocksWithoutMonitors()) {
+      logger.warn("virtual-threads.enabled needs a Tomcat that locks sockets without monitors, "
+          + "e.g. 9.0.83, not {}; requests stay on Tomcat's thread pool",
+          ServerInfo.getServerNumber());
+      executor.shutdown();
+      return null;
+    }
+    return executor;
+  }
+
+  /** Tomcat added {@code getLock()} when it stopped locking sockets with their monitors. */
+  static boolean tomcatLocksWithoutMonitors() {
+    try {
+      SocketWrapperBase.class.getMethod("getLock");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}
@@ -1,19 +1,18 @@
 package com.gauravrmsc.ecommerce.controllers;
 
-import com.gauravrmsc.ecommerce.model.persistence.Cart;
-import com.gauravrmsc.ecommerce.model.persistence.Item;
-import com.gauravrmsc.ecommerce.model.persistence.User;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.requests.BatchCartRequest;
 import com.gauravrmsc.ecommerce.model.requests.ModifyCartRequest;
-import java.util.Optional;
-import java.util.stream.IntStream;
+import com.gauravrmsc.ecommerce.model.responses.BatchCartResponse;
+import com.gauravrmsc.ecommerce.model.responses.CartResponse;
+import com.gauravrmsc.ecommerce.model.responses.CartSummary;
+import com.gauravrmsc.ecommerce.security.RequestUserContext;
+import com.gauravrmsc.ecommerce.service.CartService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,46 +23,42 @@ import org.springframework.web.bind.annotation.RestController;
 public class CartController {
   private static final Logger logger = LoggerFactory.getLogger(CartController.class);
   @Autowired
-  private UserRepository userRepository;
+  private CartService cartService;
 
   @Autowired
-  private CartRepository cartRepository;
-
-  @Autowired
-  private ItemRepository itemRepository;
+  private RequestUserContext requestUserContext;
 
   @PostMapping("/addToCart")
-  public ResponseEntity<Cart> addTocart(@RequestBody ModifyCartRequest request) throws Exception {
+  public ResponseEntity<CartResponse> addTocart(@RequestBody ModifyCartRequest request) {
     logger.info("User {} added {} to cart", request.getUsername(), request.getItemId());
-    User user = userRepository.findByUsername(request.getUsername());
-    if (user == null) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-    }
-    Optional<Item> item = itemRepository.findById(request.getItemId());
-    if (!item.isPresent()) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-    }
-    Cart cart = user.getCart();
-    IntStream.range(0, request.getQuantity()).forEach(i -> cart.addItem(item.get()));
-    cartRepository.save(cart);
-    return ResponseEntity.ok(cart);
+    return ResponseEntity.of(requestUserContext.authorize(request.getUsername())
+        .flatMap(user -> cartService.addItem(user, request.getItemId(), request.getQuantity()))
+        .map(CartResponse::of));
   }
 
   @PostMapping("/removeFromCart")
-  public ResponseEntity<Cart> removeFromcart(@RequestBody ModifyCartRequest request) {
+  public ResponseEntity<CartResponse> removeFromcart(@RequestBody ModifyCartRequest request) {
     logger.info("User {} removed {} from cart", request.getUsername(), request.getItemId());
-    User user = userRepository.findByUsername(request.getUsername());
-    if (user == null) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-    }
-    Optional<Item> item = itemRepository.findById(request.getItemId());
-    if (!item.isPresent()) {
-      return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    return ResponseEntity.of(requestUserContext.authorize(request.getUsername())
+        .flatMap(user -> cartService.removeItem(user, request.getItemId(), request.getQuantity()))
+        .map(CartResponse::of));
+  }
+
+  /** Counts and total for the authenticated user's cart, without loading its lines or items. */
+  @GetMapping("/summary")
+  public ResponseEntity<CartSummary> summary() {
+    return ResponseEntity.of(requestUserContext.current().flatMap(cartService::getSummary));
+  }
+
+  @PostMapping("/batch")
+  public ResponseEntity<BatchCartResponse> batch(@RequestBody BatchCartRequest request) {
+    if (request.getLines() == null || request.getLines().isEmpty()
+        || request.getLines().size() > CartService.MAX_BATCH_SIZE) {
+      return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
     }
-    Cart cart = user.getCart();
-    IntStream.range(0, request.getQuantity()).forEach(i -> cart.removeItem(item.get()));
-    cartRepository.save(cart);
-    return ResponseEntity.ok(cart);
+    logger.info("User {} changed {} cart lines", request.getUsername(), request.getLines().size());
+    return ResponseEntity.of(requestUserContext.authorize(request.getUsername())
+        .flatMap(user -> cartService.applyBatch(user, request.getLines())));
   }
 
 }
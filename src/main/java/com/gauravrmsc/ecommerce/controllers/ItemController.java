@@ -1,16 +1,40 @@
 package com.gauravrmsc.ecommerce.controllers;
 
+import com.gauravrmsc.ecommerce.datasource.ReplicaRead;
+import com.gauravrmsc.ecommerce.logging.LogMarkers;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.responses.ImportReport;
+import com.gauravrmsc.ecommerce.model.responses.ItemPage;
+import com.gauravrmsc.ecommerce.model.responses.ItemSearchResult;
+import com.gauravrmsc.ecommerce.search.ItemSearchIndex;
+import com.gauravrmsc.ecommerce.security.RequestUserContext;
+import com.gauravrmsc.ecommerce.service.CatalogResponseCache;
+import com.gauravrmsc.ecommerce.service.CatalogVersion;
+import com.gauravrmsc.ecommerce.service.ItemCatalogService;
+import com.gauravrmsc.ecommerce.service.ItemImportService;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.gauravrmsc.ecommerce.model.persistence.Item;
 
@@ -18,29 +42,153 @@ import com.gauravrmsc.ecommerce.model.persistence.Item;
 @RequestMapping("/api/item")
 public class ItemController {
 	private static final Logger logger = LoggerFactory.getLogger(ItemController.class);
+	/** Catalogue bodies differ by media type and by content coding. */
+	private static final String VARY = HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING;
 	@Autowired
 	private ItemRepository itemRepository;
+
+	@Autowired
+	private ItemCatalogService itemCatalogService;
+
+	@Autowired
+	private ItemSearchIndex itemSearchIndex;
+
+	@Autowired
+	private ItemImportService itemImportService;
+
+	@Autowired
+	private RequestUserContext requestUserContext;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private CatalogResponseCache catalogResponseCache;
 	
+	@ReplicaRead(catalog = true)
 	@GetMapping
-	public ResponseEntity<List<Item>> getItems() {
-		logger.info("A user viewed our product");
-		return ResponseEntity.ok(itemRepository.findAll());
+	public ResponseEntity<?> getItems(WebRequest request) {
+		logger.info(LogMarkers.HIGH_VOLUME, "A user viewed our product");
+		return catalogResponse(request, "all", () -> Optional.of(itemRepository.findAll()));
 	}
 	
+	@ReplicaRead(catalog = true)
+	@GetMapping("/page")
+	public ResponseEntity<?> getItemPage(@RequestParam(defaultValue = "0") long after,
+			@RequestParam(defaultValue = "50") int limit, WebRequest request) {
+		logger.info(LogMarkers.HIGH_VOLUME, "A user viewed our product page after {}", after);
+		// Only the first page is hot enough to cache; any cursor deeper in the catalogue is
+		// served from the database, so crawling it cannot flush the cache.
+		int size = ItemCatalogService.pageSize(limit);
+		String key = after == 0 ? "page:0:" + size : null;
+		return catalogResponse(request, key,
+				() -> Optional.of(itemCatalogService.getPage(after, size)));
+	}
+
+	@ReplicaRead(catalog = true)
+	@GetMapping("/stream")
+	public void streamItems(HttpServletResponse response) throws IOException {
+		logger.info("A user streamed our product catalogue");
+		response.setContentType("application/x-ndjson");
+		response.setCharacterEncoding("UTF-8");
+		itemCatalogService.writeNdjson(response.getOutputStream());
+	}
+
+	@PostMapping(value = "/import", consumes = {ItemImportService.CSV, ItemImportService.NDJSON})
+	public ResponseEntity<ImportReport> importItems(
+			@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body)
+			throws IOException {
+		if (!requestUserContext.current().map(itemImportService::isAdmin).orElse(false)) {
+			return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+		}
+		logger.info("Catalogue import started");
+		ItemImportService.Format format = ItemImportService.Format.forContentType(contentType).get();
+		try {
+			return ResponseEntity.ok(itemImportService.importItems(body, format));
+		} catch (IllegalArgumentException e) {
+			logger.info("Catalogue import rejected: {}", e.getMessage());
+			return ResponseEntity.badRequest().body(ImportReport.refused(e.getMessage()));
+		}
+	}
+
+	@ReplicaRead(catalog = true)
 	@GetMapping("/{id}")
-	public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-		logger.info("Product {} viewed ", id);
-		return ResponseEntity.of(itemRepository.findById(id));
+	public ResponseEntity<?> getItemById(@PathVariable Long id, WebRequest request) {
+		logger.info(LogMarkers.HIGH_VOLUME, "Product {} viewed ", id);
+		return catalogResponse(request, "item:" + id, () -> itemRepository.findById(id));
 	}
 	
 	@GetMapping("/name/{name}")
 	public ResponseEntity<List<Item>> getItemsByName(@PathVariable String name) {
 		logger.info("Search Request for {}",name);
-		List<Item> items = itemRepository.findByName(name);
-		return items == null || items.isEmpty() ? ResponseEntity.notFound().build()
+		List<Item> items = itemSearchIndex.findByName(name);
+		return items.isEmpty() ? ResponseEntity.notFound().build()
 				: ResponseEntity.ok(items);
 
 	}
-	
-}
 
+	@GetMapping("/search")
+	public ResponseEntity<ItemSearchResult> searchItems(@RequestParam("q") String query,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+		logger.info("Search Request for {}", query);
+		return ResponseEntity.ok(itemSearchIndex.search(query, page, size));
+	}
+
+	/**
+	 * Answers a catalogue read from the versioned validators and cached bytes: a matching
+	 * If-None-Match or If-Modified-Since gets a 304 without loading anything, and otherwise the
+	 * cached JSON is written as is, gzip compressed when the client accepts it. Clients that do
+	 * not accept JSON get the usual content negotiation.
+	 */
+	private ResponseEntity<?> catalogResponse(WebRequest request, String key,
+			Supplier<Optional<?>> loader) {
+		if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+			Optional<?> value = loader.get();
+			if (!value.isPresent()) {
+				return ResponseEntity.notFound().build();
+			}
+			return ResponseEntity.ok().header(HttpHeaders.VARY, VARY).body(value.get());
+		}
+		long version = catalogVersion.current();
+		if (request.checkNotModified(catalogVersion.etag(version),
+				catalogVersion.lastModified().toEpochMilli())) {
+			return null;
+		}
+		Optional<CatalogResponseCache.Body> body = catalogResponseCache.get(key, version, loader);
+		if (!body.isPresent()) {
+			return ResponseEntity.notFound().build();
+		}
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.VARY, VARY);
+		byte[] gzip = body.get().getGzip();
+		if (gzip != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+			return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+		}
+		return response.body(body.get().getJson());
+	}
+
+	private static boolean acceptsJson(String accept) {
+		if (accept == null) {
+			return true;
+		}
+		try {
+			return MediaType.parseMediaTypes(accept).stream()
+					.anyMatch(type -> type.includes(MediaType.APPLICATION_JSON));
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+}
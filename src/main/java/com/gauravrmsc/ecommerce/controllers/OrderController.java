@@ -1,9 +1,12 @@
 package com.gauravrmsc.ecommerce.controllers;
 
-import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.OrderRepository;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
-import java.util.List;
+import com.gauravrmsc.ecommerce.datasource.ReplicaRead;
+import com.gauravrmsc.ecommerce.model.responses.OrderHistoryPage;
+import com.gauravrmsc.ecommerce.model.responses.OrderResponse;
+import com.gauravrmsc.ecommerce.security.RequestUserContext;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
+import com.gauravrmsc.ecommerce.service.OrderService;
+import java.util.Optional;
 
 import org.apache.juli.logging.LogFactory;
 import org.slf4j.Logger;
@@ -13,43 +16,52 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.gauravrmsc.ecommerce.model.persistence.User;
-
 @RestController
 @RequestMapping("/api/order")
 public class OrderController {
 	private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
 	
 	@Autowired
-	private UserRepository userRepository;
+	private RequestUserContext requestUserContext;
 	
 	@Autowired
-	private OrderRepository orderRepository;
+	private OrderService orderService;
 	
 	
 	@PostMapping("/submit/{username}")
-	public ResponseEntity<UserOrder> submit(@PathVariable String username) {
+	public ResponseEntity<OrderResponse> submit(@PathVariable String username,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 		logger.info("{} placed an order",username);
-		User user = userRepository.findByUsername(username);
-		if(user == null) {
+		Optional<OrderResponse> order = requestUserContext.authorize(username)
+				.flatMap(user -> orderService.submit(user, idempotencyKey));
+		if(!order.isPresent()) {
 			logger.info("User Account for {} not found",username);
-			return ResponseEntity.notFound().build();
 		}
-		UserOrder order = UserOrder.createFromCart(user.getCart());
-		orderRepository.save(order);
-		return ResponseEntity.ok(order);
+		return ResponseEntity.of(order);
 	}
 	
+	@ReplicaRead
 	@GetMapping("/history/{username}")
-	public ResponseEntity<List<UserOrder>> getOrdersForUser(@PathVariable String username) {
-		User user = userRepository.findByUsername(username);
-		if(user == null) {
+	public ResponseEntity<OrderHistoryPage> getOrdersForUser(@PathVariable String username,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+		Optional<UserPrincipal> user = requestUserContext.authorize(username);
+		if(!user.isPresent()) {
 			logger.info("User Account for {} not found",username);
 			return ResponseEntity.notFound().build();
 		}
-		return ResponseEntity.ok(orderRepository.findByUser(user));
+		return ResponseEntity.ok(orderService.getHistory(user.get().getId(), page, size));
+	}
+
+	@ReplicaRead
+	@GetMapping("/history/{username}/{id}")
+	public ResponseEntity<OrderResponse> getOrderForUser(@PathVariable String username,
+			@PathVariable Long id) {
+		return ResponseEntity.of(requestUserContext.authorize(username)
+				.flatMap(user -> orderService.getOrder(user.getId(), id)).map(OrderResponse::of));
 	}
 }
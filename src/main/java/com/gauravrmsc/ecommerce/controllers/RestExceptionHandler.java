@@ -0,0 +1,30 @@
+package com.gauravrmsc.ecommerce.controllers;
+
+import com.gauravrmsc.ecommerce.security.HashingCapacityExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class RestExceptionHandler {
+  private static final Logger logger = LoggerFactory.getLogger(RestExceptionHandler.class);
+
+  @ExceptionHandler(ConcurrencyFailureException.class)
+  public ResponseEntity<String> handleConcurrentUpdate(ConcurrencyFailureException e) {
+    logger.warn("Request failed after repeated concurrent updates: {}", e.getMessage());
+    return new ResponseEntity<>("Concurrent update, please retry", HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(HashingCapacityExceededException.class)
+  public ResponseEntity<String> handleHashingCapacityExceeded(HashingCapacityExceededException e) {
+    logger.warn("Request rejected, password hashing pool is saturated");
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+        .body(e.getMessage());
+  }
+}
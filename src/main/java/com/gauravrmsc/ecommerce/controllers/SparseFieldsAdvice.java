@@ -0,0 +1,43 @@
+package com.gauravrmsc.ecommerce.controllers;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.gauravrmsc.ecommerce.model.responses.SparseFields;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies {@code ?fields=id,total} to responses that support sparse fields (see
+ * {@link SparseFields}), in any of the Jackson formats. Unknown names are ignored.
+ */
+@ControllerAdvice
+public class SparseFieldsAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+  public static final String PARAMETER = "fields";
+
+  @Override
+  protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+      MethodParameter returnType, ServerHttpRequest request, ServerHttpResponse response) {
+    if (!(request instanceof ServletServerHttpRequest)) {
+      return;
+    }
+    HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+    String fields = servletRequest.getParameter(PARAMETER);
+    if (!StringUtils.hasText(fields)) {
+      return;
+    }
+    Set<String> names = Arrays.stream(fields.split(",")).map(String::trim)
+        .filter(name -> !name.isEmpty()).collect(Collectors.toSet());
+    bodyContainer.setFilters(new SimpleFilterProvider()
+        .addFilter(SparseFields.FILTER_ID, new SparseFields(names)));
+  }
+}
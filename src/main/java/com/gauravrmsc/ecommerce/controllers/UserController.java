@@ -1,42 +1,49 @@
 package com.gauravrmsc.ecommerce.controllers;
 
+import com.gauravrmsc.ecommerce.datasource.ReplicaRead;
 import com.gauravrmsc.ecommerce.model.persistence.Cart;
 import com.gauravrmsc.ecommerce.model.persistence.User;
-import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
 import com.gauravrmsc.ecommerce.model.requests.CreateUserRequest;
+import com.gauravrmsc.ecommerce.security.PasswordHashingService;
+import com.gauravrmsc.ecommerce.security.RequestUserContext;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
 import java.util.Optional;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
 @RequestMapping("/api/user")
 public class UserController {
-  Logger log = LogManager.getLogger(this.getClass().getName());
+  private static final Logger log = LoggerFactory.getLogger(UserController.class);
   @Autowired
   private UserRepository userRepository;
 
   @Autowired
-  private CartRepository cartRepository;
+  private PasswordHashingService passwordHashingService;
 
   @Autowired
-  private BCryptPasswordEncoder passwordEncoder;
+  private RequestUserContext requestUserContext;
 
+  @ReplicaRead
   @GetMapping("/id/{id}")
   public ResponseEntity<User> findById(@PathVariable Long id) {
-    Optional<User> user = userRepository.findById(id);
-    return ResponseEntity.of(user);
+    Optional<UserPrincipal> principal = requestUserContext.current();
+    if (principal.isPresent() && principal.get().getId() != id) {
+      return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+    }
+    return ResponseEntity.of(principal.flatMap(user -> userRepository.findById(user.getId())));
   }
 
+  @ReplicaRead
   @GetMapping("/{username}")
   public ResponseEntity<User> findByUserName(@PathVariable String username) {
-    User user = userRepository.findByUsername(username);
-    return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(user);
+    return ResponseEntity.of(requestUserContext.authorize(username)
+        .flatMap(user -> userRepository.findById(user.getId())));
   }
 
   @PostMapping("/create")
@@ -64,12 +71,13 @@ public class UserController {
           new ResponseEntity("User Already Exist", HttpStatus.BAD_REQUEST);
       return response;
     }
+    // Hash before writing anything, so a signup rejected for hashing capacity leaves no rows
+    // behind. The cart is cascaded, so it is inserted in the same transaction as the user.
+    String password = passwordHashingService.encode(createUserRequest.getPassword());
     User user = new User();
     user.setUsername(createUserRequest.getUsername());
-    Cart cart = new Cart();
-    cartRepository.save(cart);
-    user.setCart(cart);
-    user.setPassword(passwordEncoder.encode(createUserRequest.getPassword()));
+    user.setPassword(password);
+    user.setCart(new Cart());
     userRepository.save(user);
     log.info("User Account for {} created Successfully", createUserRequest.getUsername());
     return ResponseEntity.ok(user);
@@ -0,0 +1,41 @@
+package com.gauravrmsc.ecommerce.controllers;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.gauravrmsc.ecommerce.model.responses.SparseFields;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Besides JSON, requests and responses can be Smile ({@code application/x-jackson-smile}) or
+ * CBOR ({@code application/cbor}), chosen by the Content-Type and Accept headers. The binary
+ * converters are built from the same builder as the JSON one, so they share its modules and
+ * settings; Spring's defaults for them would not.
+ */
+@Configuration
+public class WireFormatConfig {
+
+  @Bean
+  public Jackson2ObjectMapperBuilderCustomizer sparseFieldsCustomizer() {
+    return builder -> builder.filters(new SimpleFilterProvider()
+        .addFilter(SparseFields.FILTER_ID, SparseFields.ALL));
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(
+        builder.factory(new SmileFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+}
@@ -0,0 +1,37 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to requests that {@link ReplicaRoutingInterceptor} let onto the
+ * replica, and primary connections to everything else. Even on such a request, a connection
+ * taken inside a read-write transaction comes from the primary.
+ *
+ * <p>The decision is made when a connection is taken, so this must sit behind a
+ * {@code LazyConnectionDataSourceProxy}; otherwise the transaction manager takes the
+ * connection before it has marked the transaction read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+  static final String PRIMARY = "primary";
+  static final String REPLICA = "replica";
+  private static final ThreadLocal<Boolean> replicaAllowed = new ThreadLocal<>();
+
+  static void allowReplica() {
+    replicaAllowed.set(Boolean.TRUE);
+  }
+
+  static void clear() {
+    replicaAllowed.remove();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    if (replicaAllowed.get() == null) {
+      return PRIMARY;
+    }
+    boolean readOnly = !TransactionSynchronizationManager.isActualTransactionActive()
+        || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    return readOnly ? REPLICA : PRIMARY;
+  }
+}
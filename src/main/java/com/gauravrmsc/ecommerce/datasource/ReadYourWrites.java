@@ -0,0 +1,43 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Users who wrote within the last {@code replica-datasource.read-your-writes-seconds}, which
+ * should be longer than replicas lag behind. Their reads stay on the primary, so a cart change
+ * or a new order is never missing from the next page they load.
+ */
+@Component
+public class ReadYourWrites {
+  private final Duration window;
+  private final Cache<String, Boolean> recentWriters;
+
+  public ReadYourWrites(MeterRegistry meterRegistry,
+      @Value("${replica-datasource.read-your-writes-seconds:5}") long windowSeconds,
+      @Value("${replica-datasource.read-your-writes-maximum-size:100000}") long maximumSize) {
+    this.window = Duration.ofSeconds(windowSeconds);
+    this.recentWriters = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfterWrite(window).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, recentWriters, "read.your.writes");
+  }
+
+  public void recordWrite(String username) {
+    if (username != null) {
+      recentWriters.put(username, Boolean.TRUE);
+    }
+  }
+
+  public boolean wroteRecently(String username) {
+    return username != null && recentWriters.getIfPresent(username) != null;
+  }
+
+  public Duration getWindow() {
+    return window;
+  }
+}
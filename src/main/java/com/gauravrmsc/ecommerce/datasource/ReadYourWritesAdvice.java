@@ -0,0 +1,50 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Records a signed in user's successful write request with {@link ReadYourWrites} before its
+ * response body is written. A client can only send its next read after it has the response, so
+ * that read is certain to find the write recorded and go to the primary.
+ */
+@ControllerAdvice
+@ConditionalOnProperty("replica-datasource.url")
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+  private final ReadYourWrites readYourWrites;
+
+  public ReadYourWritesAdvice(ReadYourWrites readYourWrites) {
+    this.readYourWrites = readYourWrites;
+  }
+
+  @Override
+  public boolean supports(MethodParameter returnType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(Object body, MethodParameter returnType,
+      MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request, ServerHttpResponse response) {
+    HttpMethod method = request.getMethod();
+    boolean safe = method == HttpMethod.GET || method == HttpMethod.HEAD
+        || method == HttpMethod.OPTIONS;
+    if (!safe && response instanceof ServletServerHttpResponse
+        && ((ServletServerHttpResponse) response).getServletResponse().getStatus() < 400) {
+      Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+      readYourWrites.recordWrite(authentication == null ? null : authentication.getName());
+    }
+    return body;
+  }
+}
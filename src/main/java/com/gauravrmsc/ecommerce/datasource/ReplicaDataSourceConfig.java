@@ -0,0 +1,104 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import com.gauravrmsc.ecommerce.service.CatalogVersion;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Opt-in ({@code replica-datasource.url}): a second pool on a read replica, which serves the
+ * {@link ReplicaRead} endpoints. The primary pool is still configured from
+ * {@code spring.datasource.*}, and JPA, schema updates and all writes use it.
+ *
+ * <p>With open-in-view on, a request keeps the connection its first statement took until the
+ * response is written, so each request reads from one database throughout and never sees the
+ * replica and the primary disagree mid-response.
+ */
+@Configuration
+@ConditionalOnProperty("replica-datasource.url")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer, DisposableBean {
+  private final ReadYourWrites readYourWrites;
+  private final CatalogVersion catalogVersion;
+  private final List<HikariDataSource> pools = new ArrayList<>();
+
+  public ReplicaDataSourceConfig(ReadYourWrites readYourWrites, CatalogVersion catalogVersion) {
+    this.readYourWrites = readYourWrites;
+    this.catalogVersion = catalogVersion;
+  }
+
+  /**
+   * The two pools are deliberately not beans: Spring Boot initialises the schema whenever a
+   * {@code DataSource} bean is created, through the primary {@code DataSource}, which is this one
+   * and still being created. Their settings are bound from {@code spring.datasource.hikari.*} and
+   * {@code replica-datasource.hikari.*}. Setting the proxy's defaults up front keeps it from
+   * taking a connection while the context starts.
+   */
+  @Bean
+  @Primary
+  public DataSource dataSource(DataSourceProperties properties, Environment environment,
+      MeterRegistry meterRegistry, @Value("${replica-datasource.url}") String replicaUrl,
+      @Value("${replica-datasource.username:sa}") String replicaUsername,
+      @Value("${replica-datasource.password:}") String replicaPassword) {
+    Binder binder = Binder.get(environment);
+    HikariDataSource primary = pool("primary", "spring.datasource.hikari",
+        properties.initializeDataSourceBuilder(), binder, meterRegistry);
+    HikariDataSource replica = pool("replica", "replica-datasource.hikari",
+        DataSourceBuilder.create().url(replicaUrl).username(replicaUsername)
+            .password(replicaPassword), binder, meterRegistry);
+    replica.setReadOnly(true);
+
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+    targets.put(ReadWriteRoutingDataSource.REPLICA, replica);
+    ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+    routing.setTargetDataSources(targets);
+    routing.setDefaultTargetDataSource(primary);
+    routing.afterPropertiesSet();
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+    dataSource.setTargetDataSource(routing);
+    dataSource.setDefaultAutoCommit(primary.isAutoCommit());
+    dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    dataSource.afterPropertiesSet();
+    return dataSource;
+  }
+
+  private HikariDataSource pool(String name, String prefix, DataSourceBuilder<?> builder,
+      Binder binder, MeterRegistry meterRegistry) {
+    HikariDataSource pool = builder.type(HikariDataSource.class).build();
+    pool.setPoolName(name);
+    binder.bind(prefix, Bindable.ofInstance(pool));
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    pools.add(pool);
+    return pool;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(new ReplicaRoutingInterceptor(readYourWrites, catalogVersion));
+  }
+
+  @Override
+  public void destroy() {
+    pools.forEach(HikariDataSource::close);
+  }
+}
@@ -0,0 +1,19 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a GET endpoint whose reads may be served by a read replica, when one is configured (see
+ * {@link ReplicaDataSourceConfig}). The request still uses the primary if the user has written
+ * within the read-your-writes window.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReplicaRead {
+
+  /** Reads the catalogue, so also stays on the primary for a while after any item changes. */
+  boolean catalog() default false;
+}
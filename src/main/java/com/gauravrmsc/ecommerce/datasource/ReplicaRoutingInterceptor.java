@@ -0,0 +1,50 @@
+package com.gauravrmsc.ecommerce.datasource;
+
+import com.gauravrmsc.ecommerce.service.CatalogVersion;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Lets {@link ReplicaRead} GET requests onto the replica unless the user, or for catalogue reads
+ * anyone, has written recently ({@link ReadYourWritesAdvice} records the writes). With
+ * open-in-view the request's first statement picks the connection for the whole request.
+ */
+public class ReplicaRoutingInterceptor implements HandlerInterceptor {
+  private final ReadYourWrites readYourWrites;
+  private final CatalogVersion catalogVersion;
+
+  public ReplicaRoutingInterceptor(ReadYourWrites readYourWrites, CatalogVersion catalogVersion) {
+    this.readYourWrites = readYourWrites;
+    this.catalogVersion = catalogVersion;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (!(handler instanceof HandlerMethod) || !HttpMethod.GET.matches(request.getMethod())) {
+      return true;
+    }
+    ReplicaRead replicaRead = ((HandlerMethod) handler).getMethodAnnotation(ReplicaRead.class);
+    if (replicaRead != null && !readYourWrites.wroteRecently(subject())
+        && !(replicaRead.catalog() && catalogVersion.changedWithin(readYourWrites.getWindow()))) {
+      ReadWriteRoutingDataSource.allowReplica();
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    ReadWriteRoutingDataSource.clear();
+  }
+
+  private static String subject() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication == null ? null : authentication.getName();
+  }
+}
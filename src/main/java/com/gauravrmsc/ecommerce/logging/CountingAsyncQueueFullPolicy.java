@@ -0,0 +1,31 @@
+package com.gauravrmsc.ecommerce.logging;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.async.AsyncQueueFullPolicy;
+import org.apache.logging.log4j.core.async.EventRoute;
+import org.apache.logging.log4j.util.PropertiesUtil;
+
+/**
+ * What to do when the async logging ring buffer is full. Events at or below
+ * {@code log4j2.DiscardThreshold} (INFO by default) are dropped so request threads never wait on
+ * log I/O; more severe events, which alerts rely on, wait for a free slot instead. Both outcomes
+ * are counted. Selected through {@code log4j2.AsyncQueueFullPolicy}.
+ */
+public class CountingAsyncQueueFullPolicy implements AsyncQueueFullPolicy {
+  private final Level discardThreshold = Level.toLevel(
+      PropertiesUtil.getProperties().getStringProperty("log4j2.DiscardThreshold"), Level.INFO);
+
+  @Override
+  public EventRoute getRoute(long backgroundThreadId, Level level) {
+    if (Thread.currentThread().getId() == backgroundThreadId) {
+      // Logging from the appender thread itself; waiting for the queue would deadlock.
+      return EventRoute.SYNCHRONOUS;
+    }
+    if (level.isLessSpecificThan(discardThreshold)) {
+      LoggingCounters.discarded.increment();
+      return EventRoute.DISCARD;
+    }
+    LoggingCounters.blocked.increment();
+    return EventRoute.ENQUEUE;
+  }
+}
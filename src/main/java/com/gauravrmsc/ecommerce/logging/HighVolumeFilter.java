@@ -0,0 +1,106 @@
+package com.gauravrmsc.ecommerce.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.config.Node;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.filter.AbstractFilter;
+import org.apache.logging.log4j.message.Message;
+
+/**
+ * Samples and rate limits events that carry a marker, leaving every other event alone.
+ *
+ * <p>Configured as a context-wide filter it runs on the calling thread before the event is
+ * created, so dropped events never take a slot in the async ring buffer. The rate limit is a
+ * lock-free GCRA: {@code ratePerSecond} events are let through on average, with bursts of up to
+ * {@code burst} events.
+ */
+@Plugin(name = "HighVolumeFilter", category = Node.CATEGORY, elementType = Filter.ELEMENT_TYPE,
+    printObject = true)
+public final class HighVolumeFilter extends AbstractFilter {
+  private final String markerName;
+  private final double sampleRate;
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+  HighVolumeFilter(String markerName, double sampleRate, double ratePerSecond, int burst) {
+    super(Result.NEUTRAL, Result.DENY);
+    this.markerName = markerName;
+    this.sampleRate = sampleRate;
+    this.emissionIntervalNanos =
+        ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+    this.burstToleranceNanos = emissionIntervalNanos * Math.max(burst - 1, 0);
+  }
+
+  @PluginFactory
+  public static HighVolumeFilter createFilter(
+      @PluginAttribute(value = "marker", defaultString = "HIGH_VOLUME") String marker,
+      @PluginAttribute(value = "sampleRate", defaultDouble = 1.0) double sampleRate,
+      @PluginAttribute(value = "ratePerSecond", defaultDouble = 0) double ratePerSecond,
+      @PluginAttribute(value = "burst", defaultInt = 1) int burst) {
+    return new HighVolumeFilter(marker, sampleRate, ratePerSecond, burst);
+  }
+
+  @Override
+  public Result filter(Logger logger, Level level, Marker marker, String msg, Object... params) {
+    return decide(marker, System.nanoTime());
+  }
+
+  @Override
+  public Result filter(Logger logger, Level level, Marker marker, Object msg, Throwable t) {
+    return decide(marker, System.nanoTime());
+  }
+
+  @Override
+  public Result filter(Logger logger, Level level, Marker marker, Message msg, Throwable t) {
+    return decide(marker, System.nanoTime());
+  }
+
+  @Override
+  public Result filter(LogEvent event) {
+    return decide(event.getMarker(), System.nanoTime());
+  }
+
+  Result decide(Marker marker, long nowNanos) {
+    if (marker == null || !marker.isInstanceOf(markerName)) {
+      return onMatch;
+    }
+    if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+      LoggingCounters.sampledOut.increment();
+      return onMismatch;
+    }
+    if (emissionIntervalNanos > 0 && !acquire(nowNanos)) {
+      LoggingCounters.rateLimited.increment();
+      return onMismatch;
+    }
+    return onMatch;
+  }
+
+  private boolean acquire(long nowNanos) {
+    while (true) {
+      long arrival = theoreticalArrival.get();
+      long start = arrival == Long.MIN_VALUE || arrival - nowNanos < 0 ? nowNanos : arrival;
+      if (start - nowNanos > burstToleranceNanos) {
+        return false;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+        return true;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "HighVolumeFilter[marker=" + markerName + ", sampleRate=" + sampleRate
+        + ", emissionIntervalNanos=" + emissionIntervalNanos + "]";
+  }
+}
@@ -0,0 +1,15 @@
+package com.gauravrmsc.ecommerce.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+  /**
+   * Events logged on every call of a hot endpoint. They are sampled and rate limited by
+   * {@link HighVolumeFilter} before they reach the async ring buffer.
+   */
+  public static final Marker HIGH_VOLUME = MarkerFactory.getMarker("HIGH_VOLUME");
+
+  private LogMarkers() {
+  }
+}
@@ -0,0 +1,17 @@
+package com.gauravrmsc.ecommerce.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters shared between the Log4j plugins, which Log4j instantiates itself, and
+ * {@link LoggingMetrics}, which publishes them.
+ */
+public final class LoggingCounters {
+  static final LongAdder sampledOut = new LongAdder();
+  static final LongAdder rateLimited = new LongAdder();
+  static final LongAdder discarded = new LongAdder();
+  static final LongAdder blocked = new LongAdder();
+
+  private LoggingCounters() {
+  }
+}
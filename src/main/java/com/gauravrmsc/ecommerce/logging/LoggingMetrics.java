@@ -0,0 +1,42 @@
+package com.gauravrmsc.ecommerce.logging;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.async.AsyncLoggerContext;
+import org.apache.logging.log4j.core.jmx.RingBufferAdmin;
+import org.apache.logging.log4j.spi.LoggerContext;
+import org.springframework.stereotype.Component;
+
+/** Publishes what the logging pipeline dropped or waited for, and how full its ring buffer is. */
+@Component
+public class LoggingMetrics implements MeterBinder {
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    counter(registry, "sampled", LoggingCounters.sampledOut);
+    counter(registry, "rate_limited", LoggingCounters.rateLimited);
+    counter(registry, "queue_full", LoggingCounters.discarded);
+    FunctionCounter.builder("logging.events.blocked", LoggingCounters.blocked, LongAdder::sum)
+        .description("Events that waited for space in the full async logging ring buffer")
+        .register(registry);
+    LoggerContext context = LogManager.getContext(false);
+    if (context instanceof AsyncLoggerContext) {
+      RingBufferAdmin ringBuffer = ((AsyncLoggerContext) context).createRingBufferAdmin();
+      Gauge.builder("logging.ring.buffer.remaining", ringBuffer,
+          RingBufferAdmin::getRemainingCapacity)
+          .description("Free slots in the async logging ring buffer").strongReference(true)
+          .register(registry);
+      Gauge.builder("logging.ring.buffer.size", ringBuffer, RingBufferAdmin::getBufferSize)
+          .strongReference(true).register(registry);
+    }
+  }
+
+  private static void counter(MeterRegistry registry, String reason, LongAdder count) {
+    FunctionCounter.builder("logging.events.dropped", count, LongAdder::sum).tag("reason", reason)
+        .description("Events dropped before they were written").register(registry);
+  }
+}
@@ -0,0 +1,100 @@
+package com.gauravrmsc.ecommerce.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every call made through a Spring Data repository, tagged with the repository interface,
+ * the method and whether it threw. The timer count doubles as the call count, so a slow endpoint
+ * can be broken down into how many queries it made and how long they took.
+ *
+ * <p>The timers are kept per repository and method, so a call costs two map reads rather than
+ * building tags and looking the meter up in the registry.
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+  public static final String METRIC_NAME = "spring.data.repository.invocations";
+
+  private final MeterRegistry meterRegistry;
+  private final Map<Class<?>, Map<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+  public RepositoryMetricsAspect(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Around("this(org.springframework.data.repository.Repository)")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = System.nanoTime();
+    Throwable failure = null;
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      failure = e;
+      throw e;
+    } finally {
+      timers(joinPoint).timer(failure).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private MethodTimers timers(ProceedingJoinPoint joinPoint) {
+    Class<?> repository = joinPoint.getThis().getClass();
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    Map<Method, MethodTimers> byMethod = timers.get(repository);
+    if (byMethod == null) {
+      byMethod = timers.computeIfAbsent(repository, r -> new ConcurrentHashMap<>());
+    }
+    MethodTimers methodTimers = byMethod.get(method);
+    if (methodTimers == null) {
+      methodTimers = byMethod.computeIfAbsent(method,
+          m -> new MethodTimers(repositoryName(joinPoint), m.getName()));
+    }
+    return methodTimers;
+  }
+
+  private static String repositoryName(ProceedingJoinPoint joinPoint) {
+    for (Class<?> candidate : joinPoint.getThis().getClass().getInterfaces()) {
+      if (Repository.class.isAssignableFrom(candidate)) {
+        return candidate.getSimpleName();
+      }
+    }
+    return joinPoint.getSignature().getDeclaringType().getSimpleName();
+  }
+
+  private final class MethodTimers {
+    private final String repository;
+    private final String method;
+    private final Timer success;
+    private final Map<Class<?>, Timer> failures = new ConcurrentHashMap<>();
+
+    private MethodTimers(String repository, String method) {
+      this.repository = repository;
+      this.method = method;
+      this.success = register("SUCCESS", "None");
+    }
+
+    private Timer timer(Throwable failure) {
+      if (failure == null) {
+        return success;
+      }
+      Timer timer = failures.get(failure.getClass());
+      return timer != null ? timer : failures.computeIfAbsent(failure.getClass(),
+          type -> register("ERROR", type.getSimpleName()));
+    }
+
+    private Timer register(String state, String exception) {
+      return Timer.builder(METRIC_NAME).tag("repository", repository).tag("method", method)
+          .tag("state", state).tag("exception", exception).register(meterRegistry);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.gauravrmsc.ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of the currency's minor unit (cents for USD).
+ *
+ * <p>Cart and order arithmetic is done on these longs, so it is exact and allocates nothing
+ * beyond the result. Overflow throws {@link ArithmeticException} instead of wrapping.
+ * {@link BigDecimal} is only used at the JSON and database boundary. Amounts coming in from
+ * there are rounded half-even to the minor unit, so {@code 2.985} becomes {@code 2.98} and
+ * {@code 2.995} becomes {@code 3.00}.
+ */
+public final class Money implements Comparable<Money> {
+  public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+  public static final Money ZERO = new Money(0, DEFAULT_CURRENCY);
+
+  private final long minorUnits;
+  private final Currency currency;
+
+  private Money(long minorUnits, Currency currency) {
+    this.minorUnits = minorUnits;
+    this.currency = currency;
+  }
+
+  @JsonCreator
+  public static Money of(BigDecimal amount) {
+    return of(amount, DEFAULT_CURRENCY);
+  }
+
+  public static Money of(BigDecimal amount, Currency currency) {
+    BigDecimal rounded = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.HALF_EVEN);
+    return ofMinor(rounded.unscaledValue().longValueExact(), currency);
+  }
+
+  public static Money ofMinor(long minorUnits, Currency currency) {
+    if (minorUnits == 0 && currency.equals(DEFAULT_CURRENCY)) {
+      return ZERO;
+    }
+    return new Money(minorUnits, Objects.requireNonNull(currency));
+  }
+
+  public long getMinorUnits() {
+    return minorUnits;
+  }
+
+  public Currency getCurrency() {
+    return currency;
+  }
+
+  public Money plus(Money other) {
+    requireSameCurrency(other);
+    return ofMinor(Math.addExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public Money minus(Money other) {
+    requireSameCurrency(other);
+    return ofMinor(Math.subtractExact(minorUnits, other.minorUnits), currency);
+  }
+
+  public Money times(long quantity) {
+    return ofMinor(Math.multiplyExact(minorUnits, quantity), currency);
+  }
+
+  public int signum() {
+    return Long.signum(minorUnits);
+  }
+
+  @JsonValue
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+  }
+
+  private void requireSameCurrency(Money other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException(
+          "Cannot combine " + currency + " and " + other.currency + " amounts");
+    }
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    requireSameCurrency(other);
+    return Long.compare(minorUnits, other.minorUnits);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Money)) {
+      return false;
+    }
+    Money other = (Money) obj;
+    return minorUnits == other.minorUnits && currency.equals(other.currency);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Long.hashCode(minorUnits) + currency.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString() + " " + currency.getCurrencyCode();
+  }
+}
@@ -4,16 +4,21 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
+import javax.persistence.CascadeType;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import javax.persistence.ManyToMany;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
 
 @Entity
 @Table(name = "cart")
@@ -25,25 +30,42 @@ public class Cart {
 	@Column
 	private Long id;
 	
-	@ManyToMany
+	@OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
 	@JsonProperty
-	@Column
-    private List<Item> items;
+    private List<CartLine> lines;
 	
 	@OneToOne(mappedBy = "cart")
 	@JsonProperty
     private User user;
 	
-	@Column
+	/** Always the sum of the lines; kept as a column so totals can be read without the lines. */
+	@Convert(converter = MoneyConverter.class)
+	@Column(precision = 19, scale = 2)
 	@JsonProperty
-	private BigDecimal total;
+	private Money total;
+
+	@Version
+	@JsonIgnore
+	private Long version;
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
 	
 	public BigDecimal getTotal() {
-		return total;
+		return total == null ? null : total.toBigDecimal();
 	}
 
 	public void setTotal(BigDecimal total) {
-		this.total = total;
+		this.total = total == null ? null : Money.of(total);
+	}
+
+	Money total() {
+		return total == null ? Money.ZERO : total;
 	}
 
 	public User getUser() {
@@ -62,33 +84,82 @@ public class Cart {
 		this.id = id;
 	}
 
-	public List<Item> getItems() {
-		return items;
+	public List<CartLine> getLines() {
+		return lines;
 	}
 
-	public void setItems(List<Item> items) {
-		this.items = items;
+	public void setLines(List<CartLine> lines) {
+		this.lines = lines;
 	}
-	
+
+	public CartLine getLine(Item item) {
+		if(lines == null) {
+			return null;
+		}
+		// Compares ids so that unloaded item proxies on the lines stay unloaded.
+		for(CartLine line : lines) {
+			if(line.getItem().getId().equals(item.getId())) {
+				return line;
+			}
+		}
+		return null;
+	}
+
 	public void addItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		addItem(item, 1);
+	}
+
+	public void addItem(Item item, int quantity) {
+		if(quantity <= 0) {
+			return;
+		}
+		if(lines == null) {
+			lines = new ArrayList<>();
 		}
-		items.add(item);
-		if(total == null) {
-			total = new BigDecimal(0);
+		CartLine line = getLine(item);
+		if(line == null) {
+			line = new CartLine(this, item, 0, item.getPrice());
+			lines.add(line);
 		}
-		total = total.add(item.getPrice());
+		line.setQuantity(line.getQuantity() + quantity);
+		recalculateTotal();
 	}
-	
+
 	public void removeItem(Item item) {
-		if(items == null) {
-			items = new ArrayList<>();
+		removeItem(item, 1);
+	}
+
+	public void removeItem(Item item, int quantity) {
+		CartLine line = getLine(item);
+		if(line == null || quantity <= 0) {
+			return;
+		}
+		int removed = Math.min(quantity, line.getQuantity());
+		line.setQuantity(line.getQuantity() - removed);
+		if(line.getQuantity() == 0) {
+			lines.remove(line);
 		}
-		items.remove(item);
-		if(total == null) {
-			total = new BigDecimal(0);
+		recalculateTotal();
+	}
+
+	/**
+	 * Sums the lines in minor units rather than adjusting the stored total, so a total that was
+	 * rounded or edited elsewhere cannot drift away from what the lines add up to.
+	 */
+	void recalculateTotal() {
+		long minorUnits = 0;
+		if(lines != null) {
+			for(CartLine line : lines) {
+				minorUnits = Math.addExact(minorUnits, line.subtotalMinorUnits());
+			}
+		}
+		total = Money.ofMinor(minorUnits, Money.DEFAULT_CURRENCY);
+	}
+
+	public void clear() {
+		if(lines != null) {
+			lines.clear();
 		}
-		total = total.subtract(item.getPrice());
+		total = Money.ZERO;
 	}
 }
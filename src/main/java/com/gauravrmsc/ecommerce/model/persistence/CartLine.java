@@ -0,0 +1,110 @@
+package com.gauravrmsc.ecommerce.model.persistence;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
+import java.math.BigDecimal;
+import javax.persistence.*;
+import lombok.NoArgsConstructor;
+
+/**
+ * One distinct item in a {@link Cart}. Adding or removing units only changes {@code quantity},
+ * so the cost of a cart update does not depend on how many units are in it.
+ */
+@Entity
+@Table(name = "cart_line")
+@NoArgsConstructor
+public class CartLine {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @JsonProperty
+  private Long id;
+
+  @ManyToOne(optional = false)
+  @JoinColumn(name = "cart_id", nullable = false)
+  @JsonIgnore
+  private Cart cart;
+
+  /** Lazy: the cart total and summary need only the line, not the item it points to. */
+  @ManyToOne(optional = false, fetch = FetchType.LAZY)
+  @JoinColumn(name = "item_id", nullable = false)
+  @JsonProperty
+  private Item item;
+
+  @Column(nullable = false)
+  @JsonProperty
+  private int quantity;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonProperty
+  private Money unitPrice;
+
+  @Version
+  @JsonIgnore
+  private Long version;
+
+  public CartLine(Cart cart, Item item, int quantity, BigDecimal unitPrice) {
+    this.cart = cart;
+    this.item = item;
+    this.quantity = quantity;
+    this.unitPrice = unitPrice == null ? null : Money.of(unitPrice);
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public Cart getCart() {
+    return cart;
+  }
+
+  public void setCart(Cart cart) {
+    this.cart = cart;
+  }
+
+  public Item getItem() {
+    return item;
+  }
+
+  public void setItem(Item item) {
+    this.item = item;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public BigDecimal getUnitPrice() {
+    return unitPrice == null ? null : unitPrice.toBigDecimal();
+  }
+
+  public void setUnitPrice(BigDecimal unitPrice) {
+    this.unitPrice = unitPrice == null ? null : Money.of(unitPrice);
+  }
+
+  Money unitPrice() {
+    return unitPrice;
+  }
+
+  long subtotalMinorUnits() {
+    return Math.multiplyExact(unitPrice.getMinorUnits(), (long) quantity);
+  }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
+}
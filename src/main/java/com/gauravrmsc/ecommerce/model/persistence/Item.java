@@ -1,19 +1,34 @@
 package com.gauravrmsc.ecommerce.model.persistence;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.search.ItemIndexListener;
+import com.gauravrmsc.ecommerce.service.CatalogVersionListener;
 import java.math.BigDecimal;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "item")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "item")
+@EntityListeners({ItemIndexListener.class, CatalogVersionListener.class})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Item {
 
+  /**
+   * Ids come from a pooled sequence, 50 at a time, so that Hibernate can batch inserts; identity
+   * columns force one round trip per row. Ids below 1000 are left for the rows in data.sql.
+   */
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+  @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", initialValue = 1000,
+      allocationSize = 50)
   @JsonProperty
   private Long id;
 
@@ -29,6 +44,15 @@ public class Item {
   @JsonProperty
   private String description;
 
+  /** The merchant's stock keeping unit; optional, but unique when set. */
+  @Column(unique = true, length = 64)
+  @JsonProperty
+  private String sku;
+
+  public Item(Long id, String name, BigDecimal price, String description) {
+    this(id, name, price, description, null);
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -43,13 +67,13 @@ public class Item {
       return true;
     if (obj == null)
       return false;
-    if (getClass() != obj.getClass())
+    if (!(obj instanceof Item))
       return false;
     Item other = (Item) obj;
     if (id == null) {
-      if (other.id != null)
+      if (other.getId() != null)
         return false;
-    } else if (!id.equals(other.id))
+    } else if (!id.equals(other.getId()))
       return false;
     return true;
   }
@@ -86,6 +110,14 @@ public class Item {
     this.description = description;
   }
 
+  public String getSku() {
+    return sku;
+  }
+
+  public void setSku(String sku) {
+    this.sku = sku;
+  }
+
 
 
 }
@@ -0,0 +1,21 @@
+package com.gauravrmsc.ecommerce.model.persistence;
+
+import com.gauravrmsc.ecommerce.model.Money;
+import java.math.BigDecimal;
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/** Stores {@link Money} in the existing decimal columns, in {@link Money#DEFAULT_CURRENCY}. */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+  @Override
+  public BigDecimal convertToDatabaseColumn(Money money) {
+    return money == null ? null : money.toBigDecimal();
+  }
+
+  @Override
+  public Money convertToEntityAttribute(BigDecimal amount) {
+    return amount == null ? null : Money.of(amount);
+  }
+}
@@ -0,0 +1,100 @@
+package com.gauravrmsc.ecommerce.model.persistence;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
+import java.math.BigDecimal;
+import javax.persistence.*;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "order_line")
+@NoArgsConstructor
+public class OrderLine {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @JsonProperty
+  private Long id;
+
+  @ManyToOne(optional = false)
+  @JoinColumn(name = "order_id", nullable = false)
+  @JsonIgnore
+  private UserOrder order;
+
+  @ManyToOne(optional = false)
+  @JoinColumn(name = "item_id", nullable = false)
+  @JsonProperty
+  private Item item;
+
+  @Column(nullable = false)
+  @JsonProperty
+  private int quantity;
+
+  @Convert(converter = MoneyConverter.class)
+  @Column(nullable = false, precision = 19, scale = 2)
+  @JsonProperty
+  private Money unitPrice;
+
+  public OrderLine(UserOrder order, Item item, int quantity, BigDecimal unitPrice) {
+    this.order = order;
+    this.item = item;
+    this.quantity = quantity;
+    this.unitPrice = unitPrice == null ? null : Money.of(unitPrice);
+  }
+
+  private OrderLine(UserOrder order, Item item, int quantity, Money unitPrice) {
+    this.order = order;
+    this.item = item;
+    this.quantity = quantity;
+    this.unitPrice = unitPrice;
+  }
+
+  public static OrderLine fromCartLine(UserOrder order, CartLine line) {
+    return new OrderLine(order, line.getItem(), line.getQuantity(), line.unitPrice());
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public UserOrder getOrder() {
+    return order;
+  }
+
+  public void setOrder(UserOrder order) {
+    this.order = order;
+  }
+
+  public Item getItem() {
+    return item;
+  }
+
+  public void setItem(Item item) {
+    this.item = item;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+
+  public BigDecimal getUnitPrice() {
+    return unitPrice == null ? null : unitPrice.toBigDecimal();
+  }
+
+  public void setUnitPrice(BigDecimal unitPrice) {
+    this.unitPrice = unitPrice == null ? null : Money.of(unitPrice);
+  }
+
+  Money unitPrice() {
+    return unitPrice;
+  }
+}
@@ -3,10 +3,17 @@ package com.gauravrmsc.ecommerce.model.persistence;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 
 @Entity
 @Table(name = "user")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-by-username")
 public class User {
 
   @Id
@@ -14,6 +21,7 @@ public class User {
   @JsonProperty
   private long id;
 
+  @NaturalId
   @Column(nullable = false, unique = true)
   @JsonProperty
   private String username;
@@ -1,16 +1,17 @@
 package com.gauravrmsc.ecommerce.model.persistence;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import javax.persistence.*;
-import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "user_order")
-@AllArgsConstructor
 @NoArgsConstructor
 public class UserOrder {
 
@@ -20,19 +21,31 @@ public class UserOrder {
   @Column
   private Long id;
 
-  @ManyToMany(cascade = CascadeType.ALL)
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
   @JsonProperty
-  @Column
-  private List<Item> items;
+  private List<OrderLine> lines;
 
   @ManyToOne
   @JoinColumn(name = "user_id", nullable = false, referencedColumnName = "id")
   @JsonProperty
   private User user;
 
+  @Convert(converter = MoneyConverter.class)
+  @Column(precision = 19, scale = 2)
   @JsonProperty
-  @Column
-  private BigDecimal total;
+  private Money total;
+
+  @JsonProperty
+  @Column(name = "created_at")
+  private Instant createdAt;
+
+  public UserOrder(Long id, List<OrderLine> lines, User user, BigDecimal total, Instant createdAt) {
+    this.id = id;
+    this.lines = lines;
+    this.user = user;
+    setTotal(total);
+    this.createdAt = createdAt;
+  }
 
   public Long getId() {
     return id;
@@ -42,12 +55,12 @@ public class UserOrder {
     this.id = id;
   }
 
-  public List<Item> getItems() {
-    return items;
+  public List<OrderLine> getLines() {
+    return lines;
   }
 
-  public void setItems(List<Item> items) {
-    this.items = items;
+  public void setLines(List<OrderLine> lines) {
+    this.lines = lines;
   }
 
   public User getUser() {
@@ -59,18 +72,36 @@ public class UserOrder {
   }
 
   public BigDecimal getTotal() {
-    return total;
+    return total == null ? null : total.toBigDecimal();
   }
 
   public void setTotal(BigDecimal total) {
-    this.total = total;
+    this.total = total == null ? null : Money.of(total);
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @PrePersist
+  void onCreate() {
+    if (createdAt == null) {
+      createdAt = Instant.now();
+    }
   }
 
   public static UserOrder createFromCart(Cart cart) {
     UserOrder order = new UserOrder();
-    order.setItems(cart.getItems().stream().collect(Collectors.toList()));
-    order.setTotal(cart.getTotal());
+    List<CartLine> cartLines = cart.getLines() == null ? new ArrayList<>() : cart.getLines();
+    order.setLines(cartLines.stream().map(line -> OrderLine.fromCartLine(order, line))
+        .collect(Collectors.toList()));
+    order.total = cart.total();
     order.setUser(cart.getUser());
+    order.setCreatedAt(Instant.now());
     return order;
   }
 
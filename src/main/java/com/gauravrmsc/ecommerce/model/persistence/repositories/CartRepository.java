@@ -1,10 +1,21 @@
 package com.gauravrmsc.ecommerce.model.persistence.repositories;
 
+import com.gauravrmsc.ecommerce.model.responses.CartSummary;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.gauravrmsc.ecommerce.model.persistence.Cart;
 import com.gauravrmsc.ecommerce.model.persistence.User;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
 	Cart findByUser(User user);
+
+	@Query("select new com.gauravrmsc.ecommerce.model.responses.CartSummary("
+			+ "count(l), coalesce(sum(l.quantity), 0), c.total) "
+			+ "from User u join u.cart c left join c.lines l where u.id = :userId "
+			+ "group by c.id, c.total")
+	Optional<CartSummary> findSummaryByUserId(@Param("userId") long userId);
 }
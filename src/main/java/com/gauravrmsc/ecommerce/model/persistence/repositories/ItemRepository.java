@@ -1,12 +1,32 @@
 package com.gauravrmsc.ecommerce.model.persistence.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.gauravrmsc.ecommerce.model.persistence.Item;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 public interface ItemRepository extends JpaRepository<Item, Long> {
 	public List<Item> findByName(String name);
 
+	public List<Item> findBySkuIn(Collection<String> skus);
+
+	public List<Item> findByNameIn(Collection<String> names);
+
+	public List<Item> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+	@Query("select i from Item i order by i.id")
+	@QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+			@QueryHint(name = HINT_READONLY, value = "true")})
+	public Stream<Item> streamAll();
+
 }
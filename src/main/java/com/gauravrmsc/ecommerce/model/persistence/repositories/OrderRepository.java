@@ -1,12 +1,24 @@
 package com.gauravrmsc.ecommerce.model.persistence.repositories;
 
 import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
-import java.util.List;
+import com.gauravrmsc.ecommerce.model.responses.OrderSummary;
+import java.util.Optional;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-
-import com.gauravrmsc.ecommerce.model.persistence.User;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface OrderRepository extends JpaRepository<UserOrder, Long> {
-	List<UserOrder> findByUser(User user);
+	@Query(value = "select new com.gauravrmsc.ecommerce.model.responses.OrderSummary("
+			+ "o.id, o.total, coalesce(sum(l.quantity), 0), o.createdAt) "
+			+ "from UserOrder o left join o.lines l where o.user.id = :userId "
+			+ "group by o.id, o.total, o.createdAt order by o.createdAt desc, o.id desc",
+			countQuery = "select count(o) from UserOrder o where o.user.id = :userId")
+	Page<OrderSummary> findSummariesByUserId(@Param("userId") long userId, Pageable pageable);
+
+	@EntityGraph(attributePaths = {"lines", "lines.item"})
+	Optional<UserOrder> findByIdAndUserId(Long id, long userId);
 }
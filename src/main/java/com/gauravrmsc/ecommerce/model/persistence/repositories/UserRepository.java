@@ -4,6 +4,5 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.gauravrmsc.ecommerce.model.persistence.User;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-	User findByUsername(String username);
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 }
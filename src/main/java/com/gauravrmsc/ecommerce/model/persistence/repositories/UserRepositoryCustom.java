@@ -0,0 +1,9 @@
+package com.gauravrmsc.ecommerce.model.persistence.repositories;
+
+import com.gauravrmsc.ecommerce.model.persistence.User;
+
+public interface UserRepositoryCustom {
+  User findByUsername(String username);
+
+  int updatePassword(long id, String password);
+}
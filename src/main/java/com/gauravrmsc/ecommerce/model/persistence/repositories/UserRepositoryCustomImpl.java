@@ -0,0 +1,38 @@
+package com.gauravrmsc.ecommerce.model.persistence.repositories;
+
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Resolves users through Hibernate's natural-id API so that lookups by username are answered
+ * from the natural-id and entity caches instead of issuing a query every time. Password updates
+ * go through the entity as well: a bulk {@code update User} statement would evict every user from
+ * the second-level cache rather than just the one that changed.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Override
+  @Transactional(readOnly = true)
+  public User findByUsername(String username) {
+    if (username == null) {
+      return null;
+    }
+    return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).load(username);
+  }
+
+  @Override
+  @Transactional
+  public int updatePassword(long id, String password) {
+    User user = entityManager.find(User.class, id);
+    if (user == null) {
+      return 0;
+    }
+    user.setPassword(password);
+    return 1;
+  }
+}
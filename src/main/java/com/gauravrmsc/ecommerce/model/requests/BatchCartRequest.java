@@ -0,0 +1,33 @@
+package com.gauravrmsc.ecommerce.model.requests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchCartRequest {
+
+  @JsonProperty
+  private String username;
+
+  @JsonProperty
+  private List<CartDelta> lines;
+
+  public String getUsername() {
+    return username;
+  }
+
+  public void setUsername(String username) {
+    this.username = username;
+  }
+
+  public List<CartDelta> getLines() {
+    return lines;
+  }
+
+  public void setLines(List<CartDelta> lines) {
+    this.lines = lines;
+  }
+}
@@ -0,0 +1,33 @@
+package com.gauravrmsc.ecommerce.model.requests;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+/** A change to one item in a cart: a positive quantity adds units, a negative one removes them. */
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartDelta {
+
+  @JsonProperty
+  private long itemId;
+
+  @JsonProperty
+  private int quantity;
+
+  public long getItemId() {
+    return itemId;
+  }
+
+  public void setItemId(long itemId) {
+    this.itemId = itemId;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(int quantity) {
+    this.quantity = quantity;
+  }
+}
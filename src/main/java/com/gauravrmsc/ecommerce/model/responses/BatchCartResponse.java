@@ -0,0 +1,21 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonFilter(SparseFields.FILTER_ID)
+public class BatchCartResponse {
+
+  @JsonProperty
+  private CartResponse cart;
+
+  @JsonProperty
+  private List<CartDeltaResult> results;
+}
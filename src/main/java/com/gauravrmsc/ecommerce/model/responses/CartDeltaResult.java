@@ -0,0 +1,29 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** The outcome of one line of a batch cart request, in the order the lines were sent. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CartDeltaResult {
+  public static final String ITEM_NOT_FOUND = "ITEM_NOT_FOUND";
+  public static final String NOT_IN_CART = "NOT_IN_CART";
+  public static final String INVALID_QUANTITY = "INVALID_QUANTITY";
+
+  @JsonProperty
+  private long itemId;
+
+  @JsonProperty
+  private int quantity;
+
+  @JsonProperty
+  private boolean applied;
+
+  /** Why the line was not applied; null when it was. */
+  @JsonProperty
+  private String error;
+}
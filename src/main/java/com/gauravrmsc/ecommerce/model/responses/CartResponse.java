@@ -0,0 +1,34 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonFilter(SparseFields.FILTER_ID)
+public class CartResponse {
+
+  @JsonProperty
+  private Long id;
+
+  @JsonProperty
+  private List<LineResponse> lines;
+
+  @JsonProperty
+  private BigDecimal total;
+
+  public static CartResponse of(Cart cart) {
+    List<LineResponse> lines = cart.getLines() == null ? Collections.emptyList()
+        : cart.getLines().stream().map(LineResponse::of).collect(Collectors.toList());
+    return new CartResponse(cart.getId(), lines, cart.getTotal());
+  }
+}
@@ -0,0 +1,33 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Counts and total of a cart, built directly by the repository query without loading it. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonFilter(SparseFields.FILTER_ID)
+public class CartSummary {
+
+  /** Number of distinct items in the cart. */
+  @JsonProperty
+  private long lineCount;
+
+  /** Number of units across all lines of the cart. */
+  @JsonProperty
+  private long itemCount;
+
+  @JsonProperty
+  private BigDecimal total;
+
+  /** Used by the repository query, which selects the cart total as {@link Money}. */
+  public CartSummary(long lineCount, long itemCount, Money total) {
+    this(lineCount, itemCount, (total == null ? Money.ZERO : total).toBigDecimal());
+  }
+}
@@ -0,0 +1,41 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Collections;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportReport {
+
+  @JsonProperty
+  private long read;
+
+  @JsonProperty
+  private long inserted;
+
+  @JsonProperty
+  private long updated;
+
+  @JsonProperty
+  private long rejected;
+
+  @JsonProperty
+  private long elapsedMillis;
+
+  @JsonProperty
+  private double rowsPerSecond;
+
+  /** The first rejected rows, each prefixed with its line number. */
+  @JsonProperty
+  private List<String> errors;
+
+  /** A report for input refused as a whole, before any row was imported. */
+  public static ImportReport refused(String error) {
+    return new ImportReport(0, 0, 0, 0, 0, 0, Collections.singletonList(error));
+  }
+}
@@ -0,0 +1,21 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemPage {
+
+  @JsonProperty
+  private List<Item> items;
+
+  /** Pass as {@code after} to fetch the next page; null on the last page. */
+  @JsonProperty
+  private Long nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemSearchResult {
+
+  @JsonProperty
+  private List<Item> items;
+
+  @JsonProperty
+  private int total;
+
+  @JsonProperty
+  private int page;
+
+  @JsonProperty
+  private int size;
+}
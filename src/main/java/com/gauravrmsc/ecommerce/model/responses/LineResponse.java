@@ -0,0 +1,33 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.persistence.CartLine;
+import com.gauravrmsc.ecommerce.model.persistence.OrderLine;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One cart or order line; the item is referenced by id rather than embedded. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LineResponse {
+
+  @JsonProperty
+  private long itemId;
+
+  @JsonProperty
+  private int quantity;
+
+  @JsonProperty
+  private BigDecimal unitPrice;
+
+  public static LineResponse of(CartLine line) {
+    return new LineResponse(line.getItem().getId(), line.getQuantity(), line.getUnitPrice());
+  }
+
+  public static LineResponse of(OrderLine line) {
+    return new LineResponse(line.getItem().getId(), line.getQuantity(), line.getUnitPrice());
+  }
+}
@@ -0,0 +1,27 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonFilter(SparseFields.FILTER_ID)
+public class OrderHistoryPage {
+
+  @JsonProperty
+  private List<OrderSummary> orders;
+
+  @JsonProperty
+  private long total;
+
+  @JsonProperty
+  private int page;
+
+  @JsonProperty
+  private int size;
+}
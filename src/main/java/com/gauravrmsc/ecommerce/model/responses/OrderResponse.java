@@ -0,0 +1,38 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonFilter(SparseFields.FILTER_ID)
+public class OrderResponse {
+
+  @JsonProperty
+  private Long id;
+
+  @JsonProperty
+  private List<LineResponse> lines;
+
+  @JsonProperty
+  private BigDecimal total;
+
+  @JsonProperty
+  private Instant createdAt;
+
+  public static OrderResponse of(UserOrder order) {
+    List<LineResponse> lines = order.getLines() == null ? Collections.emptyList()
+        : order.getLines().stream().map(LineResponse::of).collect(Collectors.toList());
+    return new OrderResponse(order.getId(), lines, order.getTotal(), order.getCreatedAt());
+  }
+}
@@ -0,0 +1,34 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gauravrmsc.ecommerce.model.Money;
+import java.math.BigDecimal;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One row of a user's order history, built directly by the repository query. */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSummary {
+
+  @JsonProperty
+  private Long id;
+
+  @JsonProperty
+  private BigDecimal total;
+
+  /** Number of units across all lines of the order. */
+  @JsonProperty
+  private long itemCount;
+
+  @JsonProperty
+  private Instant createdAt;
+
+  /** Used by the repository query, which selects the order total as {@link Money}. */
+  public OrderSummary(Long id, Money total, long itemCount, Instant createdAt) {
+    this(id, total == null ? null : total.toBigDecimal(), itemCount, createdAt);
+  }
+}
@@ -0,0 +1,38 @@
+package com.gauravrmsc.ecommerce.model.responses;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import java.util.Set;
+
+/**
+ * Sparse field selection for responses annotated with {@code @JsonFilter(FILTER_ID)}: only the
+ * named properties of the top-level object are written. Nested objects are written whole, so
+ * {@code fields=lines} returns the lines as usual.
+ */
+public final class SparseFields extends SimpleBeanPropertyFilter {
+  public static final String FILTER_ID = "sparseFields";
+
+  /** Used when the client did not ask for specific fields. */
+  public static final PropertyFilter ALL = SimpleBeanPropertyFilter.serializeAll();
+
+  private final Set<String> fields;
+
+  public SparseFields(Set<String> fields) {
+    this.fields = fields;
+  }
+
+  @Override
+  public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+      PropertyWriter writer) throws Exception {
+    JsonStreamContext parent = generator.getOutputContext().getParent();
+    if (parent == null || !parent.inRoot() || fields.contains(writer.getName())) {
+      writer.serializeAsField(pojo, generator, provider);
+    } else if (!generator.canOmitFields()) {
+      writer.serializeAsOmittedField(pojo, generator, provider);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.gauravrmsc.ecommerce.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.search.ItemSearchIndex;
+import com.gauravrmsc.ecommerce.security.JwtTokenVerifier;
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import java.util.Arrays;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+
+/**
+ * Opt-in ({@code reactive-catalog.enabled=true}): serves the catalogue reads without blocking,
+ * on a separate Reactor Netty port, from an R2DBC pool on the application's H2 database. Carts,
+ * orders and all writes stay on Spring MVC and JPA.
+ *
+ * <p>R2DBC H2 runs queries in-process, so there is no network wait to hide; what this buys is
+ * that browsing is served by a few event loop threads that never queue behind the blocking
+ * write path, and that streamed responses follow the client's pace.
+ */
+@Configuration
+@ConditionalOnProperty(name = "reactive-catalog.enabled", havingValue = "true")
+public class ReactiveCatalogConfig {
+  private static final String H2_URL_PREFIX = "jdbc:h2:";
+
+  /**
+   * The pool is deliberately not a bean: Spring Boot turns off the JDBC {@code DataSource}, and
+   * with it JPA, when it finds a {@code ConnectionFactory} bean.
+   */
+  @Bean
+  public ReactiveItemRepository reactiveItemRepository(DataSourceProperties dataSource,
+      @Value("${reactive-catalog.pool.max-size:10}") int maxPoolSize,
+      @Value("${reactive-catalog.page-size:100}") int pageSize) {
+    String url = dataSource.determineUrl();
+    if (url == null || !url.startsWith(H2_URL_PREFIX)) {
+      throw new IllegalStateException("reactive-catalog.enabled needs an H2 database, not " + url);
+    }
+    H2ConnectionConfiguration h2 = H2ConnectionConfiguration.builder()
+        .url(url.substring(H2_URL_PREFIX.length()))
+        .username(dataSource.determineUsername())
+        .password(dataSource.determinePassword())
+        .build();
+    ConnectionPool pool = new ConnectionPool(
+        ConnectionPoolConfiguration.builder(new H2ConnectionFactory(h2))
+            .name("reactive-catalog").initialSize(1).maxSize(maxPoolSize).build());
+    return new ReactiveItemRepository(pool, pageSize);
+  }
+
+  @Bean
+  public ReactiveItemHandler reactiveItemHandler(ReactiveItemRepository reactiveItemRepository,
+      ItemSearchIndex itemSearchIndex, JwtTokenVerifier jwtTokenVerifier) {
+    return new ReactiveItemHandler(reactiveItemRepository, itemSearchIndex, jwtTokenVerifier);
+  }
+
+  @Bean
+  public ReactiveCatalogServer reactiveCatalogServer(ReactiveItemHandler reactiveItemHandler,
+      ObjectMapper objectMapper, @Value("${reactive-catalog.port:8081}") int port,
+      @Value("${reactive-catalog.event-loop-threads:2}") int eventLoopThreads) {
+    Jackson2JsonEncoder encoder = new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON,
+        ReactiveItemHandler.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON);
+    encoder.setStreamingMediaTypes(
+        Arrays.asList(ReactiveItemHandler.APPLICATION_NDJSON, MediaType.APPLICATION_STREAM_JSON));
+    HandlerStrategies strategies = HandlerStrategies.builder().codecs(codecs -> {
+      codecs.defaultCodecs().jackson2JsonEncoder(encoder);
+      codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    }).build();
+    return new ReactiveCatalogServer(
+        RouterFunctions.toHttpHandler(reactiveItemHandler.routes(), strategies), port,
+        eventLoopThreads);
+  }
+}
@@ -0,0 +1,56 @@
+package com.gauravrmsc.ecommerce.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * A Reactor Netty server for the reactive catalogue, next to Tomcat rather than instead of it.
+ * It has its own small set of event loop threads, so browsing traffic never waits for a Tomcat
+ * worker and blocking writes never hold up an event loop.
+ */
+public class ReactiveCatalogServer implements SmartLifecycle {
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveCatalogServer.class);
+
+  private final HttpHandler handler;
+  private final int port;
+  private final LoopResources loops;
+  private volatile DisposableServer server;
+
+  public ReactiveCatalogServer(HttpHandler handler, int port, int eventLoopThreads) {
+    this.handler = handler;
+    this.port = port;
+    this.loops = LoopResources.create("catalog", eventLoopThreads, true);
+  }
+
+  @Override
+  public void start() {
+    server = HttpServer.create().port(port).tcpConfiguration(tcp -> tcp.runOn(loops))
+        .handle(new ReactorHttpHandlerAdapter(handler)).bindNow();
+    logger.info("Reactive catalogue listening on port {}", server.port());
+  }
+
+  @Override
+  public void stop() {
+    if (server != null) {
+      server.disposeNow();
+      server = null;
+    }
+    loops.dispose();
+  }
+
+  @Override
+  public boolean isRunning() {
+    return server != null;
+  }
+
+  /** The bound port, which differs from the configured one when that is 0. */
+  public int getPort() {
+    return server.port();
+  }
+}
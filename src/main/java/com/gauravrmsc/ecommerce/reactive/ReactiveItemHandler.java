@@ -0,0 +1,106 @@
+package com.gauravrmsc.ecommerce.reactive;
+
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.gauravrmsc.ecommerce.logging.LogMarkers;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.search.ItemSearchIndex;
+import com.gauravrmsc.ecommerce.security.JwtTokenVerifier;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * The read endpoints of {@code ItemController} as WebFlux functions: {@code /api/item},
+ * {@code /api/item/stream}, {@code /api/item/{id}} and {@code /api/item/name/{name}}, with the
+ * same bearer tokens. {@code /api/item} answers {@code application/json} with one array and
+ * streams one item per line to clients that accept {@code application/x-ndjson} or
+ * {@code application/stream+json}.
+ *
+ * <p>Nothing here may block: tokens are checked from memory by {@link JwtTokenVerifier} and
+ * lookups by name read the in-memory {@link ItemSearchIndex}.
+ */
+public class ReactiveItemHandler {
+  public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+  private static final Logger logger = LoggerFactory.getLogger(ReactiveItemHandler.class);
+
+  private final ReactiveItemRepository itemRepository;
+  private final ItemSearchIndex itemSearchIndex;
+  private final JwtTokenVerifier jwtTokenVerifier;
+
+  public ReactiveItemHandler(ReactiveItemRepository itemRepository, ItemSearchIndex itemSearchIndex,
+      JwtTokenVerifier jwtTokenVerifier) {
+    this.itemRepository = itemRepository;
+    this.itemSearchIndex = itemSearchIndex;
+    this.jwtTokenVerifier = jwtTokenVerifier;
+  }
+
+  public RouterFunction<ServerResponse> routes() {
+    return RouterFunctions.route()
+        .GET("/api/item", this::getItems)
+        .GET("/api/item/stream", this::streamItems)
+        .GET("/api/item/name/{name}", this::getItemsByName)
+        .GET("/api/item/{id}", this::getItemById)
+        .filter((request, next) -> authenticated(request) ? next.handle(request)
+            : ServerResponse.status(HttpStatus.UNAUTHORIZED).build())
+        .build();
+  }
+
+  Mono<ServerResponse> getItems(ServerRequest request) {
+    logger.info(LogMarkers.HIGH_VOLUME, "A user viewed our product");
+    MediaType streaming = request.headers().accept().stream()
+        .filter(type -> type.isCompatibleWith(APPLICATION_NDJSON)
+            || type.isCompatibleWith(MediaType.APPLICATION_STREAM_JSON))
+        .filter(MediaType::isConcrete)
+        .findFirst().orElse(MediaType.APPLICATION_JSON);
+    return ServerResponse.ok().contentType(streaming).body(itemRepository.streamAll(), Item.class);
+  }
+
+  Mono<ServerResponse> streamItems(ServerRequest request) {
+    logger.info("A user streamed our product catalogue");
+    return ServerResponse.ok().contentType(APPLICATION_NDJSON)
+        .body(itemRepository.streamAll(), Item.class);
+  }
+
+  Mono<ServerResponse> getItemById(ServerRequest request) {
+    long id;
+    try {
+      id = Long.parseLong(request.pathVariable("id"));
+    } catch (NumberFormatException e) {
+      return ServerResponse.badRequest().build();
+    }
+    logger.info(LogMarkers.HIGH_VOLUME, "Product {} viewed ", id);
+    return itemRepository.findById(id)
+        .flatMap(item -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(item))
+        .switchIfEmpty(ServerResponse.notFound().build());
+  }
+
+  Mono<ServerResponse> getItemsByName(ServerRequest request) {
+    String name = request.pathVariable("name");
+    logger.info("Search Request for {}", name);
+    List<Item> items = itemSearchIndex.findByName(name);
+    return items.isEmpty() ? ServerResponse.notFound().build()
+        : ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(items);
+  }
+
+  private boolean authenticated(ServerRequest request) {
+    String header = request.headers().asHttpHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (header == null || !header.startsWith(TOKEN_PREFIX)) {
+      return false;
+    }
+    try {
+      return jwtTokenVerifier.verify(header.replace(TOKEN_PREFIX, "").trim()) != null;
+    } catch (JWTVerificationException e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.gauravrmsc.ecommerce.reactive;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Function;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only item queries over R2DBC, against the same tables that JPA writes. Items are plain
+ * detached objects; nothing here takes part in a JPA transaction.
+ */
+public class ReactiveItemRepository implements AutoCloseable {
+  private static final String COLUMNS = "select id, name, price, description, sku from item";
+
+  private final ConnectionFactory connectionFactory;
+  private final int pageSize;
+
+  public ReactiveItemRepository(ConnectionFactory connectionFactory, int pageSize) {
+    this.connectionFactory = connectionFactory;
+    this.pageSize = pageSize;
+  }
+
+  public Mono<Item> findById(long id) {
+    return query(connection -> connection.createStatement(COLUMNS + " where id = $1")
+        .bind(0, id).execute()).next();
+  }
+
+  /**
+   * Every item in id order, read one keyset page at a time. The next page is only queried once
+   * the subscriber has asked for more than the current page holds, so a slow client holds
+   * neither a connection nor more than a page of items while it catches up.
+   */
+  public Flux<Item> streamAll() {
+    return page(0).expand(items -> items.size() < pageSize ? Mono.empty()
+        : page(items.get(items.size() - 1).getId()))
+        .concatMapIterable(Function.identity());
+  }
+
+  /** Closes the connection pool, if the repository was given one. */
+  @Override
+  public void close() {
+    if (connectionFactory instanceof Disposable) {
+      ((Disposable) connectionFactory).dispose();
+    }
+  }
+
+  private Mono<List<Item>> page(long after) {
+    return query(connection -> connection
+        .createStatement(COLUMNS + " where id > $1 order by id limit $2")
+        .bind(0, after).bind(1, pageSize).execute()).collectList();
+  }
+
+  private Flux<Item> query(Function<Connection, Publisher<? extends Result>> sql) {
+    return Flux.usingWhen(connectionFactory.create(),
+        connection -> Flux.from(sql.apply(connection))
+            .flatMap(result -> result.map((row, metadata) -> item(row))),
+        Connection::close);
+  }
+
+  private static Item item(Row row) {
+    return new Item(row.get("id", Long.class), row.get("name", String.class),
+        row.get("price", BigDecimal.class), row.get("description", String.class),
+        row.get("sku", String.class));
+  }
+}
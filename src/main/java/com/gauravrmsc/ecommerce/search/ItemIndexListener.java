@@ -0,0 +1,44 @@
+package com.gauravrmsc.ecommerce.search;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps {@link ItemSearchIndex} in step with item writes. Changes are applied after the
+ * surrounding transaction commits, so rolled back writes never reach the index.
+ */
+public class ItemIndexListener {
+  @Autowired
+  private ObjectProvider<ItemSearchIndex> searchIndex;
+
+  @PostPersist
+  @PostUpdate
+  public void onSave(Item item) {
+    afterCommit(() -> searchIndex.getObject().index(item));
+  }
+
+  @PostRemove
+  public void onRemove(Item item) {
+    Long id = item.getId();
+    afterCommit(() -> searchIndex.getObject().remove(id));
+  }
+
+  private void afterCommit(Runnable change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      change.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        change.run();
+      }
+    });
+  }
+}
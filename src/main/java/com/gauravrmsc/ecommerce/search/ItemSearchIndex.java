@@ -0,0 +1,217 @@
+package com.gauravrmsc.ecommerce.search;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.responses.ItemSearchResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory, typo tolerant search over item names and descriptions.
+ *
+ * <p>Every distinct word ("term") is broken into trigrams, padded twice at the front so that the
+ * leading letters count the most. A query word is matched against the terms that share trigrams
+ * with it and scored with the Dice coefficient of the two trigram sets, so "widgt" still finds
+ * "widget". Matches in the name weigh twice as much as matches in the
+ * description. The index keeps its own copy of each item, so searches never touch the database.
+ */
+@Component
+public class ItemSearchIndex {
+  public static final int MAX_PAGE_SIZE = 100;
+  private static final Logger logger = LoggerFactory.getLogger(ItemSearchIndex.class);
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final float NAME_WEIGHT = 2f;
+  private static final float DESCRIPTION_WEIGHT = 1f;
+  private static final float MIN_SIMILARITY = 0.5f;
+  private static final float PREFIX_SIMILARITY = 0.8f;
+  private static final int REBUILD_BATCH = 500;
+
+  private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+  private final Map<String, Set<String>> gramToTerms = new ConcurrentHashMap<>();
+  private final Map<String, Map<Long, Float>> termPostings = new ConcurrentHashMap<>();
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void rebuild() {
+    long after = 0;
+    int indexed = 0;
+    List<Item> batch;
+    do {
+      batch = itemRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, REBUILD_BATCH));
+      for (Item item : batch) {
+        index(item);
+        after = item.getId();
+      }
+      indexed += batch.size();
+    } while (batch.size() == REBUILD_BATCH);
+    logger.info("Search index built with {} items and {} terms", indexed, termPostings.size());
+  }
+
+  public synchronized void index(Item item) {
+    remove(item.getId());
+    Map<String, Float> weights = new HashMap<>();
+    for (String term : tokenize(item.getDescription())) {
+      weights.put(term, DESCRIPTION_WEIGHT);
+    }
+    for (String term : tokenize(item.getName())) {
+      weights.put(term, NAME_WEIGHT);
+    }
+    Item copy = new Item(item.getId(), item.getName(), item.getPrice(), item.getDescription(),
+        item.getSku());
+    documents.put(item.getId(), new Document(copy, weights.keySet()));
+    weights.forEach((term, weight) -> {
+      Map<Long, Float> postings = termPostings.get(term);
+      if (postings == null) {
+        postings = new ConcurrentHashMap<>();
+        for (String gram : trigrams(term)) {
+          gramToTerms.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(term);
+        }
+        termPostings.put(term, postings);
+      }
+      postings.put(item.getId(), weight);
+    });
+  }
+
+  public synchronized void remove(Long id) {
+    Document document = documents.remove(id);
+    if (document == null) {
+      return;
+    }
+    for (String term : document.terms) {
+      Map<Long, Float> postings = termPostings.get(term);
+      postings.remove(id);
+      if (postings.isEmpty()) {
+        termPostings.remove(term);
+        for (String gram : trigrams(term)) {
+          Set<String> terms = gramToTerms.get(gram);
+          terms.remove(term);
+          if (terms.isEmpty()) {
+            gramToTerms.remove(gram);
+          }
+        }
+      }
+    }
+  }
+
+  public ItemSearchResult search(String query, int page, int size) {
+    int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    int pageNumber = Math.max(page, 0);
+    List<Item> ranked = rank(query);
+    int from = Math.min(pageNumber * pageSize, ranked.size());
+    int to = Math.min(from + pageSize, ranked.size());
+    return new ItemSearchResult(new ArrayList<>(ranked.subList(from, to)), ranked.size(),
+        pageNumber, pageSize);
+  }
+
+  /**
+   * Up to {@link #MAX_PAGE_SIZE} items for a lookup by name: items named exactly {@code name},
+   * ignoring case, come first and the rest of the search results for it follow in rank order.
+   */
+  public List<Item> findByName(String name) {
+    List<Item> ranked = rank(name);
+    List<Item> items = new ArrayList<>();
+    ranked.stream().filter(item -> name.equalsIgnoreCase(item.getName())).forEach(items::add);
+    ranked.stream().filter(item -> !name.equalsIgnoreCase(item.getName())).forEach(items::add);
+    return items.size() > MAX_PAGE_SIZE ? new ArrayList<>(items.subList(0, MAX_PAGE_SIZE)) : items;
+  }
+
+  private List<Item> rank(String query) {
+    Map<Long, Float> scores = new HashMap<>();
+    for (String queryTerm : tokenize(query)) {
+      Map<Long, Float> best = new HashMap<>();
+      matchingTerms(queryTerm).forEach((term, similarity) -> {
+        Map<Long, Float> postings = termPostings.get(term);
+        if (postings != null) {
+          postings.forEach((id, weight) -> best.merge(id, similarity * weight, Math::max));
+        }
+      });
+      best.forEach((id, score) -> scores.merge(id, score, Float::sum));
+    }
+    return scores.entrySet().stream()
+        .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()))
+        .map(entry -> documents.get(entry.getKey()))
+        .filter(Objects::nonNull)
+        .map(document -> document.item)
+        .collect(Collectors.toList());
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  private Map<String, Float> matchingTerms(String queryTerm) {
+    Set<String> queryGrams = trigrams(queryTerm);
+    Map<String, Integer> shared = new HashMap<>();
+    for (String gram : queryGrams) {
+      for (String term : gramToTerms.getOrDefault(gram, Collections.emptySet())) {
+        shared.merge(term, 1, Integer::sum);
+      }
+    }
+    Map<String, Float> matches = new HashMap<>();
+    shared.forEach((term, common) -> {
+      float similarity = 2f * common / (queryGrams.size() + trigrams(term).size());
+      if (queryTerm.length() > 1 && term.startsWith(queryTerm)) {
+        similarity = Math.max(similarity, PREFIX_SIMILARITY);
+      }
+      if (similarity >= MIN_SIMILARITY) {
+        matches.put(term, similarity);
+      }
+    });
+    return matches;
+  }
+
+  static List<String> tokenize(String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+    List<String> terms = new ArrayList<>();
+    for (String term : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  static Set<String> trigrams(String term) {
+    String padded = "$$" + term + "$";
+    Set<String> grams = new LinkedHashSet<>();
+    for (int i = 0; i + 3 <= padded.length(); i++) {
+      grams.add(padded.substring(i, i + 3));
+    }
+    if (grams.isEmpty()) {
+      grams.add(padded);
+    }
+    return grams;
+  }
+
+  private static final class Document {
+    private final Item item;
+    private final Set<String> terms;
+
+    private Document(Item item, Set<String> terms) {
+      this.item = item;
+      this.terms = terms;
+    }
+  }
+}
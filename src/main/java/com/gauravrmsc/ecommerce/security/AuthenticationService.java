@@ -7,10 +7,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -19,21 +19,44 @@ public class AuthenticationService implements AuthenticationProvider {
   @Autowired
   UserRepository userRepository;
   @Autowired
-  BCryptPasswordEncoder passwordEncoder;
+  PasswordHashingService passwordHashingService;
 
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
     String userName = authentication.getName();
     String password = authentication.getCredentials().toString();
     User user = userRepository.findByUsername(userName);
-    if (user != null && passwordEncoder.matches(password, user.getPassword())) {
+    if (user != null && matches(password, user.getPassword())) {
       logger.info("User {} logged into his account", userName);
+      upgradeHashIfNeeded(user, password);
       return new UsernamePasswordAuthenticationToken(userName, password, new ArrayList<>());
     }
     logger.warn("Invaid Login Attempt id={}", userName);
     return null;
   }
 
+  private boolean matches(String password, String hashedPassword) {
+    try {
+      return passwordHashingService.matches(password, hashedPassword);
+    } catch (HashingCapacityExceededException e) {
+      logger.warn("Login rejected, password hashing pool is saturated");
+      throw new AuthenticationServiceException(e.getMessage(), e);
+    }
+  }
+
+  private void upgradeHashIfNeeded(User user, String password) {
+    if (!passwordHashingService.needsRehash(user.getPassword())) {
+      return;
+    }
+    try {
+      userRepository.updatePassword(user.getId(), passwordHashingService.encode(password));
+      logger.info("Upgraded password hash cost for {}", user.getUsername());
+    } catch (HashingCapacityExceededException e) {
+      logger.debug("Skipping password hash upgrade for {}, hashing pool is saturated",
+          user.getUsername());
+    }
+  }
+
   @Override
   public boolean supports(Class<?> authentication) {
     return authentication.equals(UsernamePasswordAuthenticationToken.class);
@@ -0,0 +1,52 @@
+package com.gauravrmsc.ecommerce.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * The BCrypt cost used for new password hashes. Each extra cost step doubles the hashing time, so
+ * calibration times a few hashes at the minimum cost and picks the highest cost whose estimated
+ * time still fits the target on this host. Calibration only runs when {@code encoder.strength} is
+ * unset, and hosts may reach different costs, so a cluster should pin it.
+ */
+public final class BCryptStrength {
+  private static final Logger logger = LoggerFactory.getLogger(BCryptStrength.class);
+  private static final int PROBES = 3;
+  private final int strength;
+
+  private BCryptStrength(int strength) {
+    if (strength < 4 || strength > 31) {
+      throw new IllegalArgumentException("BCrypt strength must be between 4 and 31: " + strength);
+    }
+    this.strength = strength;
+  }
+
+  public static BCryptStrength fixed(int strength) {
+    return new BCryptStrength(strength);
+  }
+
+  public static BCryptStrength calibrate(long targetMillis, int minStrength, int maxStrength) {
+    BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+    probe.encode("calibration-warmup");
+    long fastestNanos = Long.MAX_VALUE;
+    for (int i = 0; i < PROBES; i++) {
+      long start = System.nanoTime();
+      probe.encode("calibration-probe");
+      fastestNanos = Math.min(fastestNanos, System.nanoTime() - start);
+    }
+    double estimatedMillis = fastestNanos / 1_000_000.0;
+    int strength = minStrength;
+    while (strength < maxStrength && estimatedMillis * 2 <= targetMillis) {
+      strength++;
+      estimatedMillis *= 2;
+    }
+    logger.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)", strength,
+        Math.round(estimatedMillis), targetMillis);
+    return new BCryptStrength(strength);
+  }
+
+  public int getStrength() {
+    return strength;
+  }
+}
@@ -0,0 +1,14 @@
+package com.gauravrmsc.ecommerce.security;
+
+public class HashingCapacityExceededException extends RuntimeException {
+  private final int retryAfterSeconds;
+
+  public HashingCapacityExceededException(int retryAfterSeconds) {
+    super("Password hashing capacity exceeded");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
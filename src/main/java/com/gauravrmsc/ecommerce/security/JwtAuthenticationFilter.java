@@ -2,6 +2,7 @@ package com.gauravrmsc.ecommerce.security;
 
 import com.auth0.jwt.JWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.datasource.ReadYourWrites;
 import com.gauravrmsc.ecommerce.model.requests.LoginRequest;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -10,10 +11,13 @@ import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
@@ -23,16 +27,24 @@ import static com.gauravrmsc.ecommerce.security.SecurityConstants.*;
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
   private AuthenticationManager authenticationManager;
+  private final LoginRateLimiter loginRateLimiter;
+  private final ReadYourWrites readYourWrites;
 
-  public JwtAuthenticationFilter(AuthenticationManager authenticationManager) {
+  public JwtAuthenticationFilter(AuthenticationManager authenticationManager,
+      LoginRateLimiter loginRateLimiter, ReadYourWrites readYourWrites) {
     this.authenticationManager = authenticationManager;
+    this.loginRateLimiter = loginRateLimiter;
+    this.readYourWrites = readYourWrites;
   }
 
   @Override
   public Authentication attemptAuthentication(HttpServletRequest req, HttpServletResponse res)
       throws AuthenticationException {
+    // Throttled attempts are turned away before the user lookup and the password hash.
+    loginRateLimiter.checkClient(req.getRemoteAddr());
     try {
       LoginRequest creds = new ObjectMapper().readValue(req.getInputStream(), LoginRequest.class);
+      loginRateLimiter.checkUsername(creds.getUsername());
 
       return authenticationManager.authenticate(
           new UsernamePasswordAuthenticationToken(creds.getUsername(), creds.getPassword(),
@@ -46,6 +58,10 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
   @Override
   protected void successfulAuthentication(HttpServletRequest req, HttpServletResponse res,
       FilterChain chain, Authentication auth) throws IOException, ServletException {
+    // The username limit is there to stop guessing, so a correct password gets its token back.
+    loginRateLimiter.refundUsername(auth.getName());
+    // A new account may not have reached the replicas yet, and login may have rehashed the password.
+    readYourWrites.recordWrite(auth.getName());
 
     String token = JWT.create().withSubject(auth.getName())
         .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
@@ -53,4 +69,24 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     res.addHeader(HEADER_STRING, TOKEN_PREFIX + token);
 
   }
+
+  @Override
+  protected void unsuccessfulAuthentication(HttpServletRequest req, HttpServletResponse res,
+      AuthenticationException failed) throws IOException, ServletException {
+    if (failed instanceof LoginRateExceededException) {
+      SecurityContextHolder.clearContext();
+      res.setHeader(HttpHeaders.RETRY_AFTER,
+          String.valueOf(((LoginRateExceededException) failed).getRetryAfterSeconds()));
+      res.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), failed.getMessage());
+      return;
+    }
+    if (failed.getCause() instanceof HashingCapacityExceededException) {
+      SecurityContextHolder.clearContext();
+      HashingCapacityExceededException cause = (HashingCapacityExceededException) failed.getCause();
+      res.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(cause.getRetryAfterSeconds()));
+      res.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), cause.getMessage());
+      return;
+    }
+    super.unsuccessfulAuthentication(req, res, failed);
+  }
 }
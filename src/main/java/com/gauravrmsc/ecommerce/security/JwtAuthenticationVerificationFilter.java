@@ -1,7 +1,5 @@
 package com.gauravrmsc.ecommerce.security;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import java.io.IOException;
 import java.util.ArrayList;
 import javax.servlet.FilterChain;
@@ -17,8 +15,12 @@ import static com.gauravrmsc.ecommerce.security.SecurityConstants.*;
 
 public class JwtAuthenticationVerificationFilter extends BasicAuthenticationFilter {
 
-  public JwtAuthenticationVerificationFilter(AuthenticationManager authenticationManager) {
+  private final JwtTokenVerifier jwtTokenVerifier;
+
+  public JwtAuthenticationVerificationFilter(AuthenticationManager authenticationManager,
+      JwtTokenVerifier jwtTokenVerifier) {
     super(authenticationManager);
+    this.jwtTokenVerifier = jwtTokenVerifier;
   }
 
   @Override
@@ -40,8 +42,7 @@ public class JwtAuthenticationVerificationFilter extends BasicAuthenticationFilt
     String token = request.getHeader(HEADER_STRING);
     if (token != null) {
       // parse the token.
-      String user = JWT.require(Algorithm.HMAC512(SECRET.getBytes())).build()
-          .verify(token.replace(TOKEN_PREFIX, "")).getSubject();
+      String user = jwtTokenVerifier.verify(token.replace(TOKEN_PREFIX, ""));
       if (user != null) {
         return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
       }
@@ -0,0 +1,108 @@
+package com.gauravrmsc.ecommerce.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+
+/**
+ * Verifies bearer tokens with a single shared verifier and remembers the subject of every token
+ * it has already verified, so repeat requests with the same token skip the HMAC check. Entries
+ * expire at the token's {@code exp} claim and are evicted when the cache reaches its size bound.
+ */
+@Component
+public class JwtTokenVerifier {
+  private static final JWTVerifier VERIFIER = JWT.require(Algorithm.HMAC512(SECRET.getBytes()))
+      .build();
+  private final Cache<String, VerifiedToken> verifiedTokens;
+  private final Timer cachedTimer;
+  private final Timer verifiedTimer;
+  private final Timer rejectedTimer;
+
+  public JwtTokenVerifier(@Value("${jwt.cache.maximum-size:100000}") long maximumSize,
+      MeterRegistry meterRegistry) {
+    this.verifiedTokens = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfter(new ExpiresAtClaim()).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+    this.cachedTimer = verificationTimer(meterRegistry, "cached");
+    this.verifiedTimer = verificationTimer(meterRegistry, "verified");
+    this.rejectedTimer = verificationTimer(meterRegistry, "rejected");
+  }
+
+  private static Timer verificationTimer(MeterRegistry meterRegistry, String result) {
+    return Timer.builder("security.jwt.verification").tag("result", result)
+        .description("Time to check a bearer token").register(meterRegistry);
+  }
+
+  /**
+   * Returns the subject of the token, or throws {@link JWTVerificationException} if the token is
+   * malformed, has a bad signature or has expired.
+   */
+  public String verify(String token) {
+    long start = System.nanoTime();
+    VerifiedToken cached = verifiedTokens.getIfPresent(token);
+    if (cached != null) {
+      cachedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return cached.subject;
+    }
+    DecodedJWT jwt;
+    try {
+      jwt = VERIFIER.verify(token);
+    } catch (JWTVerificationException e) {
+      rejectedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      throw e;
+    }
+    if (jwt.getSubject() != null && jwt.getExpiresAt() != null) {
+      verifiedTokens.put(token, new VerifiedToken(jwt.getSubject(), jwt.getExpiresAt().getTime()));
+    }
+    verifiedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    return jwt.getSubject();
+  }
+
+  public CacheStats stats() {
+    return verifiedTokens.stats();
+  }
+
+  private static final class VerifiedToken {
+    private final String subject;
+    private final long expiresAtMillis;
+
+    private VerifiedToken(String subject, long expiresAtMillis) {
+      this.subject = subject;
+      this.expiresAtMillis = expiresAtMillis;
+    }
+  }
+
+  private static final class ExpiresAtClaim implements Expiry<String, VerifiedToken> {
+    @Override
+    public long expireAfterCreate(String token, VerifiedToken value, long currentTime) {
+      long remainingMillis = value.expiresAtMillis - System.currentTimeMillis();
+      return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+
+    @Override
+    public long expireAfterUpdate(String token, VerifiedToken value, long currentTime,
+        long currentDuration) {
+      return expireAfterCreate(token, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(String token, VerifiedToken value, long currentTime,
+        long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
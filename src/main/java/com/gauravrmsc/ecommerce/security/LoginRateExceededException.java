@@ -0,0 +1,16 @@
+package com.gauravrmsc.ecommerce.security;
+
+import org.springframework.security.core.AuthenticationException;
+
+public class LoginRateExceededException extends AuthenticationException {
+  private final int retryAfterSeconds;
+
+  public LoginRateExceededException(int retryAfterSeconds) {
+    super("Too many login attempts");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
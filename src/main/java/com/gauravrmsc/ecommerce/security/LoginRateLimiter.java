@@ -0,0 +1,157 @@
+package com.gauravrmsc.ecommerce.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token bucket limits on login attempts, one bucket per client address and one per username,
+ * checked before the user is looked up or a password is hashed. A credential stuffer cycling
+ * through usernames runs into its address's bucket, and guesses at one account from many
+ * addresses run into the account's.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time at which it will next be full
+ * (the generic cell rate algorithm, which is a token bucket without a separate token count), so
+ * taking a token is one compare-and-set. The buckets live in Caffeine caches, whose maps and
+ * buffers are striped. A bucket left alone long enough to refill completely expires, which loses
+ * nothing. Past {@code login-rate-limit.maximum-size} buckets, though, the cache also evicts
+ * buckets that are still draining, and such a key starts again with a full burst. Caffeine keeps
+ * the most frequently hit keys, so a bucket under attack is the last to go, but the limit should
+ * still be well above the number of distinct clients and usernames seen in one refill period.
+ * Successful logins hand their username token back, so the username limit only counts failures.
+ *
+ * <p>The client address is the request's remote address, and IPv6 clients share a bucket per /64,
+ * the smallest block a host is usually given. Behind a proxy, let Tomcat resolve it from
+ * {@code X-Forwarded-For} ({@code server.forward-headers-strategy=native}) rather than trusting
+ * the header here.
+ */
+@Component
+public class LoginRateLimiter {
+  private final boolean enabled;
+  private final TokenBuckets clients;
+  private final TokenBuckets usernames;
+
+  public LoginRateLimiter(MeterRegistry meterRegistry,
+      @Value("${login-rate-limit.enabled:true}") boolean enabled,
+      @Value("${login-rate-limit.ip.burst:100}") int ipBurst,
+      @Value("${login-rate-limit.ip.per-minute:600}") int ipPerMinute,
+      @Value("${login-rate-limit.user.burst:10}") int userBurst,
+      @Value("${login-rate-limit.user.per-minute:10}") int userPerMinute,
+      @Value("${login-rate-limit.maximum-size:100000}") long maximumSize) {
+    this.enabled = enabled;
+    this.clients = new TokenBuckets("ip", ipBurst, ipPerMinute, maximumSize, meterRegistry);
+    this.usernames = new TokenBuckets("user", userBurst, userPerMinute, maximumSize, meterRegistry);
+  }
+
+  /** Takes a token for the client address, or throws {@link LoginRateExceededException}. */
+  public void checkClient(String address) {
+    if (enabled && address != null) {
+      clients.acquire(clientKey(address));
+    }
+  }
+
+  /** Takes a token for the username, or throws {@link LoginRateExceededException}. */
+  public void checkUsername(String username) {
+    if (enabled && username != null) {
+      usernames.acquire(username);
+    }
+  }
+
+  /** Gives back the username's token after a successful login. */
+  public void refundUsername(String username) {
+    if (enabled && username != null) {
+      usernames.refund(username);
+    }
+  }
+
+  /** The address itself for IPv4, and its /64 prefix for IPv6. */
+  static String clientKey(String address) {
+    if (address.indexOf(':') < 0) {
+      return address;
+    }
+    try {
+      InetAddress parsed = InetAddress.getByName(address);
+      if (!(parsed instanceof Inet6Address)) {
+        return parsed.getHostAddress();
+      }
+      byte[] prefix = Arrays.copyOf(parsed.getAddress(), 16);
+      Arrays.fill(prefix, 8, 16, (byte) 0);
+      return InetAddress.getByAddress(prefix).getHostAddress() + "/64";
+    } catch (UnknownHostException e) {
+      return address;
+    }
+  }
+
+  private static final class TokenBuckets {
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    private TokenBuckets(String limit, int burst, int perMinute, long maximumSize,
+        MeterRegistry meterRegistry) {
+      if (burst < 1 || perMinute < 1) {
+        throw new IllegalArgumentException("login-rate-limit." + limit
+            + " burst and per-minute must be positive");
+      }
+      this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+      this.toleranceNanos = intervalNanos * (burst - 1);
+      this.buckets = Caffeine.newBuilder().maximumSize(maximumSize)
+          .expireAfterAccess(intervalNanos * burst, TimeUnit.NANOSECONDS).recordStats().build();
+      CaffeineCacheMetrics.monitor(meterRegistry, buckets, "login.rate." + limit);
+      this.allowed = attempts(meterRegistry, limit, "allowed");
+      this.rejected = attempts(meterRegistry, limit, "rejected");
+    }
+
+    private static Counter attempts(MeterRegistry meterRegistry, String limit, String result) {
+      return Counter.builder("security.login.rate.limit").tag("limit", limit)
+          .tag("result", result).description("Login attempts checked against a rate limit")
+          .register(meterRegistry);
+    }
+
+    private void acquire(String key) {
+      AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+      while (true) {
+        long now = System.nanoTime();
+        long current = fullAt.get();
+        long start = current - now > 0 ? current : now;
+        long waitNanos = start - now - toleranceNanos;
+        if (waitNanos > 0) {
+          rejected.increment();
+          throw new LoginRateExceededException(
+              Math.max(1, (int) TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        if (fullAt.compareAndSet(current, start + intervalNanos)) {
+          allowed.increment();
+          return;
+        }
+      }
+    }
+
+    private void refund(String key) {
+      AtomicLong fullAt = buckets.getIfPresent(key);
+      if (fullAt == null) {
+        return;
+      }
+      while (true) {
+        long now = System.nanoTime();
+        long current = fullAt.get();
+        long refunded = current - intervalNanos;
+        if (fullAt.compareAndSet(current, refunded - now > 0 ? refunded : now)) {
+          return;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.gauravrmsc.ecommerce.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, fixed-size pool with a bounded queue, so a
+ * burst of logins or signups cannot occupy every request thread. When the queue is full, or the
+ * hash is not done within the wait budget, the call fails with
+ * {@link HashingCapacityExceededException}. Unless set explicitly, the queue holds only as many
+ * requests as the pool can hash within that budget.
+ */
+@Service
+public class PasswordHashingService implements DisposableBean {
+  private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+  private final BCryptPasswordEncoder passwordEncoder;
+  private final BCryptStrength strength;
+  private final ThreadPoolExecutor executor;
+  private final int retryAfterSeconds;
+  private final long maxWaitMillis;
+  private final Timer waitTimer;
+  private final Timer encodeTimer;
+  private final Timer matchesTimer;
+  private final Counter rejected;
+  private final Counter timedOut;
+
+  public PasswordHashingService(BCryptPasswordEncoder passwordEncoder, BCryptStrength strength,
+      MeterRegistry meterRegistry,
+      @Value("${password-hashing.pool-size:0}") int poolSize,
+      @Value("${password-hashing.queue-capacity:0}") int queueCapacity,
+      @Value("${password-hashing.max-wait-millis:1000}") long maxWaitMillis,
+      @Value("${encoder.target-millis:250}") long hashMillis,
+      @Value("${password-hashing.retry-after-seconds:1}") int retryAfterSeconds) {
+    this.passwordEncoder = passwordEncoder;
+    this.strength = strength;
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.maxWaitMillis = maxWaitMillis;
+    int threads =
+        poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    int capacity = queueCapacity > 0 ? queueCapacity
+        : (int) Math.max(1, threads * (maxWaitMillis - hashMillis) / Math.max(1, hashMillis));
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(capacity), new CustomizableThreadFactory("password-hashing-"));
+    Gauge.builder("security.password.hashing.queue", executor, e -> e.getQueue().size())
+        .description("Hashing requests waiting for a worker").register(meterRegistry);
+    Gauge.builder("security.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .register(meterRegistry);
+    this.waitTimer = Timer.builder("security.password.hashing.wait")
+        .description("Time a hashing request spent queued").register(meterRegistry);
+    this.encodeTimer = Timer.builder("security.password.hashing.time").tag("operation", "encode")
+        .register(meterRegistry);
+    this.matchesTimer = Timer.builder("security.password.hashing.time").tag("operation", "matches")
+        .register(meterRegistry);
+    this.rejected = Counter.builder("security.password.hashing.rejected").register(meterRegistry);
+    this.timedOut = Counter.builder("security.password.hashing.timed-out")
+        .description("Hashing requests abandoned after the wait budget").register(meterRegistry);
+  }
+
+  public String encode(CharSequence rawPassword) {
+    return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+  }
+
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+  }
+
+  /**
+   * True when the stored hash was made with a lower cost than the current one, so it should be
+   * replaced after the next successful login. A higher cost is left alone: calibrated nodes in one
+   * cluster can disagree on the cost, and rehashing in both directions would rewrite the same
+   * password on every login. Pin {@code encoder.strength} to give the whole fleet one cost.
+   */
+  public boolean needsRehash(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) < strength.getStrength();
+  }
+
+  public int getQueueDepth() {
+    return executor.getQueue().size();
+  }
+
+  private <T> T submit(Timer timer, Callable<T> hash) {
+    long enqueuedAt = System.nanoTime();
+    Future<T> result;
+    try {
+      result = executor.submit(() -> {
+        waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        return timer.recordCallable(hash);
+      });
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new HashingCapacityExceededException(retryAfterSeconds);
+    }
+    try {
+      return result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      timedOut.increment();
+      throw new HashingCapacityExceededException(retryAfterSeconds);
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
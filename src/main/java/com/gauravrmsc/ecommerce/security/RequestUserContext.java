@@ -0,0 +1,51 @@
+package com.gauravrmsc.ecommerce.security;
+
+import java.util.Optional;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The user the current request is authenticated as, taken from the JWT subject and resolved at
+ * most once per request. Controllers use it instead of looking users up by a username the client
+ * sent.
+ */
+@Component
+@RequestScope
+public class RequestUserContext {
+  private final UserPrincipalCache userPrincipalCache;
+  private Optional<UserPrincipal> principal;
+
+  public RequestUserContext(UserPrincipalCache userPrincipalCache) {
+    this.userPrincipalCache = userPrincipalCache;
+  }
+
+  /** Empty if the token's subject has no account. */
+  public Optional<UserPrincipal> current() {
+    if (principal == null) {
+      principal = userPrincipalCache.get(subject());
+    }
+    return principal;
+  }
+
+  /**
+   * Like {@link #current()}, but rejects the request with 403 if the client named a different
+   * user than the one it is authenticated as. A null {@code claimedUsername} is not checked.
+   */
+  public Optional<UserPrincipal> authorize(String claimedUsername) {
+    Optional<UserPrincipal> user = current();
+    if (user.isPresent() && claimedUsername != null
+        && !claimedUsername.equals(user.get().getUsername())) {
+      throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+    }
+    return user;
+  }
+
+  private static String subject() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication == null ? null : authentication.getName();
+  }
+}
@@ -1,5 +1,6 @@
 package com.gauravrmsc.ecommerce.security;
 
+import com.gauravrmsc.ecommerce.datasource.ReadYourWrites;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,6 +12,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEALTH_URL;
 import static com.gauravrmsc.ecommerce.security.SecurityConstants.SIGN_UP_URL;
 
 @EnableWebSecurity
@@ -18,6 +20,12 @@ import static com.gauravrmsc.ecommerce.security.SecurityConstants.SIGN_UP_URL;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
   @Autowired
   AuthenticationService authenticationService;
+  @Autowired
+  JwtTokenVerifier jwtTokenVerifier;
+  @Autowired
+  LoginRateLimiter loginRateLimiter;
+  @Autowired
+  ReadYourWrites readYourWrites;
 
   @Override
   public void configure(AuthenticationManagerBuilder auth) {
@@ -33,9 +41,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
   @Override
   protected void configure(HttpSecurity http) throws Exception {
     http.cors().and().csrf().disable().authorizeRequests().antMatchers(HttpMethod.POST, SIGN_UP_URL)
-        .permitAll().anyRequest().authenticated().and()
-        .addFilter(new JwtAuthenticationFilter(authenticationManager()))
-        .addFilter(new JwtAuthenticationVerificationFilter(authenticationManager()))
+        .permitAll().antMatchers(HttpMethod.GET, HEALTH_URL).permitAll()
+        .anyRequest().authenticated().and()
+        .addFilter(new JwtAuthenticationFilter(authenticationManager(), loginRateLimiter,
+            readYourWrites))
+        .addFilter(new JwtAuthenticationVerificationFilter(authenticationManager(), jwtTokenVerifier))
         .sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
   }
 }
@@ -8,4 +8,5 @@ public class SecurityConstants {
   public static final String HEADER_STRING = "Authorization";
   public static final String SIGN_UP_URL = "/api/user/create";
   public static final String LOGIN_URL = "/login";
+  public static final String HEALTH_URL = "/actuator/health";
 }
@@ -0,0 +1,26 @@
+package com.gauravrmsc.ecommerce.security;
+
+import com.gauravrmsc.ecommerce.model.persistence.User;
+
+/** The parts of an authenticated user that requests need, neither of which ever changes. */
+public final class UserPrincipal {
+  private final long id;
+  private final String username;
+
+  public UserPrincipal(long id, String username) {
+    this.id = id;
+    this.username = username;
+  }
+
+  public static UserPrincipal of(User user) {
+    return new UserPrincipal(user.getId(), user.getUsername());
+  }
+
+  public long getId() {
+    return id;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+}
@@ -0,0 +1,58 @@
+package com.gauravrmsc.ecommerce.security;
+
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Short-lived map from a token subject to the user's ids. A user's id and name never change, so a
+ * few seconds of staleness only matters for accounts that have just been created, and those are
+ * looked up again as soon as they are missing.
+ */
+@Component
+public class UserPrincipalCache {
+  private final UserRepository userRepository;
+  private final Cache<String, UserPrincipal> principals;
+
+  public UserPrincipalCache(UserRepository userRepository, MeterRegistry meterRegistry,
+      @Value("${user-principal-cache.maximum-size:100000}") long maximumSize,
+      @Value("${user-principal-cache.ttl-seconds:60}") long ttlSeconds) {
+    this.userRepository = userRepository;
+    this.principals = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, principals, "user.principal");
+  }
+
+  /** Empty if there is no account with this username; misses are not cached. */
+  public Optional<UserPrincipal> get(String username) {
+    if (username == null) {
+      return Optional.empty();
+    }
+    UserPrincipal principal = principals.getIfPresent(username);
+    if (principal == null) {
+      // Loaded outside the cache's lock: a virtual thread must not block on JDBC while holding
+      // a monitor. Two requests may both load a new user, which is harmless.
+      principal = load(username);
+      if (principal != null) {
+        principals.put(username, principal);
+      }
+    }
+    return Optional.ofNullable(principal);
+  }
+
+  public void invalidate(String username) {
+    principals.invalidate(username);
+  }
+
+  private UserPrincipal load(String username) {
+    User user = userRepository.findByUsername(username);
+    return user == null ? null : UserPrincipal.of(user);
+  }
+}
@@ -0,0 +1,118 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.requests.CartDelta;
+import com.gauravrmsc.ecommerce.model.responses.BatchCartResponse;
+import com.gauravrmsc.ecommerce.model.responses.CartDeltaResult;
+import com.gauravrmsc.ecommerce.model.responses.CartResponse;
+import com.gauravrmsc.ecommerce.model.responses.CartSummary;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class CartService {
+  public static final int MAX_BATCH_SIZE = 500;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private CartRepository cartRepository;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private OptimisticRetry optimisticRetry;
+
+  public Optional<Cart> addItem(UserPrincipal user, long itemId, int quantity) {
+    return modifyCart(user, itemId, (cart, item) -> cart.addItem(item, quantity));
+  }
+
+  public Optional<Cart> removeItem(UserPrincipal user, long itemId, int quantity) {
+    return modifyCart(user, itemId, (cart, item) -> cart.removeItem(item, quantity));
+  }
+
+  /** Line count, unit count and total of the cart from one aggregate query. */
+  public Optional<CartSummary> getSummary(UserPrincipal user) {
+    return cartRepository.findSummaryByUserId(user.getId());
+  }
+
+  /**
+   * Applies many item changes to the cart in one transaction: the items are loaded with a single
+   * query and the cart is written once. A line that names an unknown item, removes an item that
+   * is not in the cart or has a zero quantity is reported as failed; the other lines still apply.
+   */
+  public Optional<BatchCartResponse> applyBatch(UserPrincipal user, List<CartDelta> deltas) {
+    return optimisticRetry.execute(() -> {
+      Optional<Cart> found = userRepository.findById(user.getId()).map(User::getCart);
+      if (!found.isPresent()) {
+        return Optional.empty();
+      }
+      Cart cart = found.get();
+      Set<Long> itemIds = deltas.stream().map(CartDelta::getItemId).collect(Collectors.toSet());
+      Map<Long, Item> items = new HashMap<>();
+      for (Item item : itemRepository.findAllById(itemIds)) {
+        items.put(item.getId(), item);
+      }
+      List<CartDeltaResult> results = new ArrayList<>(deltas.size());
+      for (CartDelta delta : deltas) {
+        results.add(apply(cart, items.get(delta.getItemId()), delta));
+      }
+      cartRepository.save(cart);
+      return Optional.of(new BatchCartResponse(CartResponse.of(cart), results));
+    });
+  }
+
+  private static CartDeltaResult apply(Cart cart, Item item, CartDelta delta) {
+    String error = null;
+    if (item == null) {
+      error = CartDeltaResult.ITEM_NOT_FOUND;
+    } else if (delta.getQuantity() == 0) {
+      error = CartDeltaResult.INVALID_QUANTITY;
+    } else if (delta.getQuantity() > 0) {
+      cart.addItem(item, delta.getQuantity());
+    } else if (cart.getLine(item) == null) {
+      error = CartDeltaResult.NOT_IN_CART;
+    } else {
+      cart.removeItem(item, -delta.getQuantity());
+    }
+    return new CartDeltaResult(delta.getItemId(), delta.getQuantity(), error == null, error);
+  }
+
+  /**
+   * Loads the cart, applies the change and saves it in one transaction. A concurrent writer
+   * bumps the cart version, so the losing transaction is rolled back and replayed against
+   * the fresh cart instead of overwriting it.
+   */
+  private Optional<Cart> modifyCart(UserPrincipal user, long itemId,
+      BiConsumer<Cart, Item> change) {
+    return optimisticRetry.execute(() -> {
+      Optional<Cart> cart = userRepository.findById(user.getId()).map(User::getCart);
+      if (!cart.isPresent()) {
+        return Optional.empty();
+      }
+      Optional<Item> item = itemRepository.findById(itemId);
+      if (!item.isPresent()) {
+        return Optional.empty();
+      }
+      change.accept(cart.get(), item.get());
+      cartRepository.save(cart.get());
+      return cart;
+    });
+  }
+}
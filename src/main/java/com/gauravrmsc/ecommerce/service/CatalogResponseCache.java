@@ -0,0 +1,104 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serialized catalogue responses, as JSON and gzip compressed JSON, keyed by request and tagged
+ * with the {@link CatalogVersion} they were built at. An entry from an older version is rebuilt
+ * on the next request, so item writes need no explicit invalidation. The cache is bounded by the
+ * bytes it holds, since one full catalogue body can outweigh thousands of single items.
+ */
+@Component
+public class CatalogResponseCache {
+  /** Smaller bodies are not worth compressing. */
+  static final int MIN_GZIP_BYTES = 512;
+
+  private final ObjectMapper objectMapper;
+  private final Cache<String, Body> bodies;
+
+  public CatalogResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+      @Value("${catalog-cache.maximum-bytes:67108864}") long maximumBytes) {
+    this.objectMapper = objectMapper;
+    this.bodies = Caffeine.newBuilder().maximumWeight(maximumBytes)
+        .weigher((String key, Body body) -> body.weight()).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, bodies, "catalog.response");
+  }
+
+  /**
+   * The body for {@code key} at {@code version}, loading and serializing it if needed. The
+   * version must be read before the loader runs, so a write that commits during the load leaves
+   * the entry behind. Empty when the loader finds nothing; that is not cached. A null key
+   * serializes the body without caching it.
+   */
+  public Optional<Body> get(String key, long version, Supplier<Optional<?>> loader) {
+    Body body = key == null ? null : bodies.getIfPresent(key);
+    if (body != null && body.version == version) {
+      return Optional.of(body);
+    }
+    Optional<?> value = loader.get();
+    if (!value.isPresent()) {
+      return Optional.empty();
+    }
+    body = new Body(version, serialize(value.get()));
+    if (key != null) {
+      bodies.put(key, body);
+    }
+    return Optional.of(body);
+  }
+
+  private byte[] serialize(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+    }
+  }
+
+  public static final class Body {
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzip;
+
+    Body(long version, byte[] json) {
+      this.version = version;
+      this.json = json;
+      this.gzip = json.length < MIN_GZIP_BYTES ? null : gzip(json);
+    }
+
+    public byte[] getJson() {
+      return json;
+    }
+
+    /** Null if the body is too small to be worth compressing. */
+    public byte[] getGzip() {
+      return gzip;
+    }
+
+    int weight() {
+      return json.length + (gzip == null ? 0 : gzip.length);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+      try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+        gzip.write(bytes);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return out.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.gauravrmsc.ecommerce.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * A counter that moves on after every committed item write, used as the validator for catalogue
+ * responses. The ETag also names the server start, so tags from before a restart, when the
+ * in-memory catalogue was loaded afresh, never match.
+ */
+@Component
+public class CatalogVersion {
+  private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong version = new AtomicLong();
+  private volatile Instant lastModified = now();
+  private volatile long changedAtNanos;
+  private volatile boolean changed;
+
+  public long current() {
+    return version.get();
+  }
+
+  /** Weak, because the same version is served both gzip compressed and uncompressed. */
+  public String etag(long version) {
+    return "W/\"" + bootId + "-" + version + "\"";
+  }
+
+  /** Whole seconds, the precision of the Last-Modified header. */
+  public Instant lastModified() {
+    return lastModified;
+  }
+
+  /** Whether an item write committed within the window; false until the first one. */
+  public boolean changedWithin(Duration window) {
+    return changed && System.nanoTime() - changedAtNanos < window.toNanos();
+  }
+
+  public void bump() {
+    changedAtNanos = System.nanoTime();
+    changed = true;
+    lastModified = now();
+    version.incrementAndGet();
+  }
+
+  private static Instant now() {
+    return Instant.now().truncatedTo(ChronoUnit.SECONDS);
+  }
+}
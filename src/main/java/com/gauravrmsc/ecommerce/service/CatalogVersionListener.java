@@ -0,0 +1,35 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Moves {@link CatalogVersion} on after a transaction that wrote items commits. Readers take the
+ * version before loading, so whatever they cache while the write is in flight is already stale.
+ */
+public class CatalogVersionListener {
+  @Autowired
+  private ObjectProvider<CatalogVersion> catalogVersion;
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  public void onWrite(Item item) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      catalogVersion.getObject().bump();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        catalogVersion.getObject().bump();
+      }
+    });
+  }
+}
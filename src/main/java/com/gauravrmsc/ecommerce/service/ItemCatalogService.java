@@ -0,0 +1,73 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.responses.ItemPage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ItemCatalogService {
+  public static final int MAX_PAGE_SIZE = 500;
+  private static final int FLUSH_EVERY = 100;
+
+  @Autowired
+  private ItemRepository itemRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  /** Returns up to {@code limit} items with an id greater than {@code after}, in id order. */
+  public ItemPage getPage(long after, int limit) {
+    int size = pageSize(limit);
+    List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, size));
+    Long nextCursor = items.size() == size ? items.get(items.size() - 1).getId() : null;
+    return new ItemPage(items, nextCursor);
+  }
+
+  /** The page size actually served for a requested {@code limit}. */
+  public static int pageSize(int limit) {
+    return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+  }
+
+  /**
+   * Writes the whole catalogue as newline-delimited JSON while the rows are read. Each item is
+   * detached once written, so neither the persistence context nor the response buffer grows with
+   * the size of the catalogue.
+   */
+  @Transactional(readOnly = true)
+  public long writeNdjson(OutputStream out) throws IOException {
+    JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.setRootValueSeparator(null);
+    long written = 0;
+    try (Stream<Item> items = itemRepository.streamAll()) {
+      Iterator<Item> iterator = items.iterator();
+      while (iterator.hasNext()) {
+        Item item = iterator.next();
+        generator.writeObject(item);
+        generator.writeRaw('\n');
+        entityManager.detach(item);
+        if (++written % FLUSH_EVERY == 0) {
+          generator.flush();
+        }
+      }
+    }
+    generator.flush();
+    return written;
+  }
+}
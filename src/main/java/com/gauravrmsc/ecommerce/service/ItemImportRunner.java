@@ -0,0 +1,66 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.gauravrmsc.ecommerce.model.responses.ImportReport;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Command-line import: started with {@code --import-items=items.csv[,more.ndjson]}, the
+ * application imports the files, logs a report for each and exits instead of serving requests.
+ * The format is taken from the file extension.
+ */
+@Component
+public class ItemImportRunner implements ApplicationRunner {
+  public static final String OPTION = "import-items";
+  private static final Logger logger = LoggerFactory.getLogger(ItemImportRunner.class);
+
+  @Autowired
+  private ItemImportService itemImportService;
+
+  @Autowired
+  private ConfigurableApplicationContext context;
+
+  @Override
+  public void run(ApplicationArguments args) {
+    if (!args.containsOption(OPTION)) {
+      return;
+    }
+    int status = 0;
+    for (String value : args.getOptionValues(OPTION)) {
+      for (String path : value.split(",")) {
+        if (!importFile(path.trim())) {
+          status = 1;
+        }
+      }
+    }
+    int exitCode = status;
+    System.exit(SpringApplication.exit(context, () -> exitCode));
+  }
+
+  private boolean importFile(String path) {
+    Optional<ItemImportService.Format> format = ItemImportService.Format.forFileName(path);
+    if (!format.isPresent()) {
+      logger.error("Cannot import {}: expected a .csv, .ndjson or .jsonl file", path);
+      return false;
+    }
+    try (InputStream in = Files.newInputStream(Paths.get(path))) {
+      ImportReport report = itemImportService.importItems(in, format.get());
+      logger.info("{}: {}", path, report);
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      logger.error("Cannot import {}: {}", path, e.getMessage());
+      return false;
+    }
+  }
+}
@@ -0,0 +1,371 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.responses.ImportReport;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams item rows from CSV or newline-delimited JSON into the catalogue. Rows are validated one
+ * at a time and written in chunks, each in its own transaction, so memory use does not depend on
+ * the size of the file. A row with a SKU replaces the item with that SKU; a row without one
+ * replaces the item with the same name. Anything else is inserted.
+ */
+@Service
+public class ItemImportService {
+  public static final String CSV = "text/csv";
+  public static final String NDJSON = "application/x-ndjson";
+  public static final int MAX_REPORTED_ERRORS = 100;
+  private static final Logger logger = LoggerFactory.getLogger(ItemImportService.class);
+  private static final int MAX_TEXT_LENGTH = 255;
+  private static final int MAX_SKU_LENGTH = 64;
+
+  public enum Format {
+    CSV(ItemImportService.CSV, ".csv"),
+    NDJSON(ItemImportService.NDJSON, ".ndjson", ".jsonl");
+
+    private final MediaType mediaType;
+    private final List<String> extensions;
+
+    Format(String mediaType, String... extensions) {
+      this.mediaType = MediaType.parseMediaType(mediaType);
+      this.extensions = Arrays.asList(extensions);
+    }
+
+    public static Optional<Format> forContentType(String contentType) {
+      MediaType type = MediaType.parseMediaType(contentType);
+      return Arrays.stream(values()).filter(format -> format.mediaType.includes(type)).findFirst();
+    }
+
+    public static Optional<Format> forFileName(String fileName) {
+      String name = fileName.toLowerCase(Locale.ROOT);
+      return Arrays.stream(values())
+          .filter(format -> format.extensions.stream().anyMatch(name::endsWith)).findFirst();
+    }
+  }
+
+  private final ItemRepository itemRepository;
+  private final ObjectMapper objectMapper;
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+  private final Set<String> admins;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public ItemImportService(ItemRepository itemRepository, ObjectMapper objectMapper,
+      PlatformTransactionManager transactionManager,
+      @Value("${item-import.chunk-size:1000}") int chunkSize,
+      @Value("${item-import.admins:}") String[] admins) {
+    this.itemRepository = itemRepository;
+    this.objectMapper = objectMapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+    this.admins = new HashSet<>(Arrays.asList(admins));
+  }
+
+  /** Whether the user is on the {@code item-import.admins} list. */
+  public boolean isAdmin(UserPrincipal user) {
+    return admins.contains(user.getUsername());
+  }
+
+  /**
+   * Imports every row of {@code in}. Invalid rows are counted and reported but do not stop the
+   * import.
+   *
+   * @throws IllegalArgumentException if a CSV file has no usable header line
+   */
+  public ImportReport importItems(InputStream in, Format format) throws IOException {
+    long start = System.nanoTime();
+    Progress progress = new Progress();
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    long lineNumber = 0;
+    RowParser parser;
+    if (format == Format.CSV) {
+      parser = csvParser(reader.readLine());
+      lineNumber++;
+    } else {
+      parser = this::parseJson;
+    }
+    List<Row> chunk = new ArrayList<>(chunkSize);
+    String line;
+    while ((line = reader.readLine()) != null) {
+      lineNumber++;
+      if (line.trim().isEmpty()) {
+        continue;
+      }
+      progress.read++;
+      try {
+        Row row = parser.parse(line);
+        row.line = lineNumber;
+        validate(row);
+        chunk.add(row);
+      } catch (IllegalArgumentException e) {
+        progress.reject(lineNumber, e.getMessage());
+      }
+      if (chunk.size() == chunkSize) {
+        write(chunk, progress);
+        chunk.clear();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      write(chunk, progress);
+    }
+
+    long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+    double rowsPerSecond = progress.read * 1000d / elapsedMillis;
+    logger.info("Imported {} item rows ({} inserted, {} updated, {} rejected) in {} ms, {} rows/s",
+        progress.read, progress.inserted, progress.updated, progress.rejected, elapsedMillis,
+        Math.round(rowsPerSecond));
+    return new ImportReport(progress.read, progress.inserted, progress.updated, progress.rejected,
+        elapsedMillis, rowsPerSecond, progress.errors);
+  }
+
+  private void write(List<Row> chunk, Progress progress) {
+    try {
+      int[] counts = transactionTemplate.execute(status -> upsert(chunk));
+      progress.inserted += counts[0];
+      progress.updated += counts[1];
+    } catch (DataAccessException e) {
+      String reason = "not written: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+      for (Row row : chunk) {
+        progress.reject(row.line, reason);
+      }
+    }
+  }
+
+  /** Returns the number of inserted and updated items. */
+  private int[] upsert(List<Row> chunk) {
+    // The imported items are not read back here, so keep them out of the second-level cache.
+    entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+    Set<String> skus = new HashSet<>();
+    Set<String> names = new HashSet<>();
+    for (Row row : chunk) {
+      if (row.sku != null) {
+        skus.add(row.sku);
+      } else {
+        names.add(row.name);
+      }
+    }
+    Map<String, Item> bySku = new HashMap<>();
+    if (!skus.isEmpty()) {
+      for (Item item : itemRepository.findBySkuIn(skus)) {
+        bySku.put(item.getSku(), item);
+      }
+    }
+    Map<String, Item> byName = new HashMap<>();
+    if (!names.isEmpty()) {
+      for (Item item : itemRepository.findByNameIn(names)) {
+        byName.merge(item.getName(), item, (a, b) -> a.getId() < b.getId() ? a : b);
+      }
+    }
+
+    int inserted = 0;
+    int updated = 0;
+    for (Row row : chunk) {
+      Item item = row.sku != null ? bySku.get(row.sku) : byName.get(row.name);
+      if (item == null) {
+        item = new Item(null, row.name, row.price, row.description, row.sku);
+        entityManager.persist(item);
+        if (row.sku != null) {
+          bySku.put(row.sku, item);
+        } else {
+          byName.put(row.name, item);
+        }
+        inserted++;
+      } else {
+        item.setName(row.name);
+        item.setPrice(row.price);
+        item.setDescription(row.description);
+        updated++;
+      }
+    }
+    return new int[] {inserted, updated};
+  }
+
+  private static void validate(Row row) {
+    row.name = row.name == null ? null : row.name.trim();
+    if (row.name == null || row.name.isEmpty()) {
+      throw new IllegalArgumentException("name is required");
+    }
+    if (row.name.length() > MAX_TEXT_LENGTH) {
+      throw new IllegalArgumentException("name is longer than " + MAX_TEXT_LENGTH);
+    }
+    if (row.price == null) {
+      throw new IllegalArgumentException("price is required");
+    }
+    if (row.price.signum() < 0 || row.price.stripTrailingZeros().scale() > 2) {
+      throw new IllegalArgumentException("price must be zero or more, with at most 2 decimals");
+    }
+    row.description = row.description == null ? "" : row.description.trim();
+    if (row.description.length() > MAX_TEXT_LENGTH) {
+      throw new IllegalArgumentException("description is longer than " + MAX_TEXT_LENGTH);
+    }
+    row.sku = row.sku == null || row.sku.trim().isEmpty() ? null : row.sku.trim();
+    if (row.sku != null && row.sku.length() > MAX_SKU_LENGTH) {
+      throw new IllegalArgumentException("sku is longer than " + MAX_SKU_LENGTH);
+    }
+  }
+
+  private Row parseJson(String line) {
+    JsonNode node;
+    try {
+      node = objectMapper.readTree(line);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("malformed JSON");
+    }
+    if (!node.isObject()) {
+      throw new IllegalArgumentException("expected a JSON object");
+    }
+    Row row = new Row();
+    row.sku = text(node, "sku");
+    row.name = text(node, "name");
+    row.description = text(node, "description");
+    JsonNode price = node.get("price");
+    if (price != null && price.isNumber()) {
+      row.price = price.decimalValue();
+    } else if (price != null && price.isTextual()) {
+      row.price = parsePrice(price.asText());
+    }
+    return row;
+  }
+
+  private static String text(JsonNode node, String field) {
+    JsonNode value = node.get(field);
+    return value == null || value.isNull() ? null : value.asText();
+  }
+
+  private static RowParser csvParser(String header) {
+    if (header == null) {
+      throw new IllegalArgumentException("CSV input is empty");
+    }
+    List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+    Map<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < columns.size(); i++) {
+      index.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+    }
+    if (!index.containsKey("name") || !index.containsKey("price")) {
+      throw new IllegalArgumentException("CSV header must name at least the name and price columns");
+    }
+    int sku = index.getOrDefault("sku", -1);
+    int name = index.get("name");
+    int price = index.get("price");
+    int description = index.getOrDefault("description", -1);
+    return line -> {
+      List<String> fields = splitCsv(line);
+      Row row = new Row();
+      row.sku = field(fields, sku);
+      row.name = field(fields, name);
+      row.description = field(fields, description);
+      String amount = field(fields, price);
+      row.price = amount == null || amount.trim().isEmpty() ? null : parsePrice(amount);
+      return row;
+    };
+  }
+
+  private static String field(List<String> fields, int index) {
+    return index < 0 || index >= fields.size() ? null : fields.get(index);
+  }
+
+  private static BigDecimal parsePrice(String amount) {
+    try {
+      return new BigDecimal(amount.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("price is not a number");
+    }
+  }
+
+  /**
+   * Splits one CSV record. Fields may be quoted, with {@code ""} standing for a quote inside a
+   * quoted field; a quoted field cannot span lines.
+   */
+  static List<String> splitCsv(String line) {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  private interface RowParser {
+    Row parse(String line);
+  }
+
+  private static class Row {
+    long line;
+    String sku;
+    String name;
+    BigDecimal price;
+    String description;
+  }
+
+  private static class Progress {
+    long read;
+    long inserted;
+    long updated;
+    long rejected;
+    final List<String> errors = new ArrayList<>();
+
+    void reject(long line, String reason) {
+      rejected++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add("line " + line + ": " + reason);
+      }
+    }
+  }
+}
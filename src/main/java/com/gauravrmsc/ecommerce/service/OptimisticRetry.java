@@ -0,0 +1,67 @@
+package com.gauravrmsc.ecommerce.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it from scratch when it loses an
+ * optimistic version check, up to a bounded number of attempts with jittered backoff.
+ */
+@Component
+public class OptimisticRetry {
+  private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+  private final TransactionTemplate transactionTemplate;
+  private final int maxAttempts;
+  private final long backoffMillis;
+  private final Counter retries;
+  private final Counter exhausted;
+
+  public OptimisticRetry(PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${optimistic-retry.max-attempts:10}") int maxAttempts,
+      @Value("${optimistic-retry.backoff-millis:5}") long backoffMillis) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxAttempts = maxAttempts;
+    this.backoffMillis = backoffMillis;
+    this.retries = Counter.builder("optimistic.retry.conflicts").tag("outcome", "retried")
+        .register(meterRegistry);
+    this.exhausted = Counter.builder("optimistic.retry.conflicts").tag("outcome", "exhausted")
+        .register(meterRegistry);
+  }
+
+  public <T> T execute(Supplier<T> work) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionTemplate.execute(status -> work.get());
+      } catch (ConcurrencyFailureException e) {
+        if (attempt >= maxAttempts) {
+          logger.warn("Giving up after {} conflicting attempts", attempt);
+          exhausted.increment();
+          throw e;
+        }
+        logger.debug("Concurrent update detected, retrying attempt {}", attempt + 1);
+        retries.increment();
+        backoff(attempt, e);
+      }
+    }
+  }
+
+  private void backoff(int attempt, ConcurrencyFailureException cause) {
+    long bound = backoffMillis << Math.min(attempt, 6);
+    try {
+      Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw cause;
+    }
+  }
+}
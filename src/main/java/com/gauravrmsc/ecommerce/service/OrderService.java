@@ -0,0 +1,122 @@
+package com.gauravrmsc.ecommerce.service;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.OrderRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.responses.OrderHistoryPage;
+import com.gauravrmsc.ecommerce.model.responses.OrderResponse;
+import com.gauravrmsc.ecommerce.model.responses.OrderSummary;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Places orders and serves a user's order history. History is served as a page of summaries from
+ * a single aggregate query, and the lines of one order are only loaded when that order is asked
+ * for.
+ */
+@Service
+public class OrderService {
+  public static final int MAX_PAGE_SIZE = 100;
+
+  private final OrderRepository orderRepository;
+  private final UserRepository userRepository;
+  private final CartRepository cartRepository;
+  private final OptimisticRetry optimisticRetry;
+  /**
+   * Submissions by user and idempotency key. The entry is added before the order is placed, so a
+   * retry that races the original waits for it instead of placing a second order. Only the
+   * response is kept, not the entity, so a cached submission holds no persistence context.
+   */
+  private final Cache<String, CompletableFuture<Optional<OrderResponse>>> submissions;
+
+  public OrderService(OrderRepository orderRepository, UserRepository userRepository,
+      CartRepository cartRepository, OptimisticRetry optimisticRetry, MeterRegistry meterRegistry,
+      @Value("${idempotency.maximum-size:100000}") long maximumSize,
+      @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds) {
+    this.orderRepository = orderRepository;
+    this.userRepository = userRepository;
+    this.cartRepository = cartRepository;
+    this.optimisticRetry = optimisticRetry;
+    this.submissions = Caffeine.newBuilder().maximumSize(maximumSize)
+        .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, submissions, "order.idempotency");
+  }
+
+  /**
+   * Turns the user's cart into an order and empties the cart in the same transaction. When an
+   * idempotency key is given, repeating the call with the same key returns the order placed by
+   * the first call without going to the database.
+   */
+  public Optional<OrderResponse> submit(UserPrincipal user, String idempotencyKey) {
+    if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+      return placeOrder(user);
+    }
+    String key = user.getId() + "\n" + idempotencyKey;
+    CompletableFuture<Optional<OrderResponse>> submission = new CompletableFuture<>();
+    CompletableFuture<Optional<OrderResponse>> original =
+        submissions.asMap().putIfAbsent(key, submission);
+    if (original != null) {
+      try {
+        return original.join();
+      } catch (CompletionException e) {
+        // The original attempt failed and has already been forgotten; try again.
+        return submit(user, idempotencyKey);
+      }
+    }
+    try {
+      Optional<OrderResponse> order = placeOrder(user);
+      submission.complete(order);
+      if (!order.isPresent()) {
+        submissions.asMap().remove(key, submission);
+      }
+      return order;
+    } catch (RuntimeException e) {
+      submissions.asMap().remove(key, submission);
+      submission.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private Optional<OrderResponse> placeOrder(UserPrincipal user) {
+    return optimisticRetry.execute(() -> {
+      Optional<Cart> found = userRepository.findById(user.getId()).map(User::getCart);
+      if (!found.isPresent()) {
+        return Optional.empty();
+      }
+      Cart cart = found.get();
+      UserOrder order = UserOrder.createFromCart(cart);
+      orderRepository.save(order);
+      cart.clear();
+      cartRepository.save(cart);
+      return Optional.of(OrderResponse.of(order));
+    });
+  }
+
+  public OrderHistoryPage getHistory(long userId, int page, int size) {
+    int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    int pageNumber = Math.max(page, 0);
+    Page<OrderSummary> summaries =
+        orderRepository.findSummariesByUserId(userId, PageRequest.of(pageNumber, pageSize));
+    return new OrderHistoryPage(summaries.getContent(), summaries.getTotalElements(), pageNumber,
+        pageSize);
+  }
+
+  /** Empty when the order does not exist or belongs to someone else. */
+  public Optional<UserOrder> getOrder(long userId, long orderId) {
+    return orderRepository.findByIdAndUserId(orderId, userId);
+  }
+}
@@ -0,0 +1,100 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.CartLine;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.security.UserPrincipal;
+import com.gauravrmsc.ecommerce.service.CartService;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = {ECommerceApplication.class},
+    properties = {"optimistic-retry.max-attempts=100", "optimistic-retry.backoff-millis=1"})
+public class CartConcurrencyTest {
+  private static final int THREADS = 16;
+  private static final int ADDS_PER_THREAD = 5;
+  private static final long ITEM_ID = 1l;
+  @Autowired
+  CartService cartService;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  CartRepository cartRepository;
+  @Autowired
+  ItemRepository itemRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  private ExecutorService executor;
+  private String username;
+  private UserPrincipal principal;
+
+  @BeforeEach
+  public void setup() {
+    executor = Executors.newFixedThreadPool(THREADS);
+    username = "concurrent-" + System.nanoTime();
+    User saved = new TransactionTemplate(transactionManager).execute(status -> {
+      User user = new User(username, "not-a-real-hash");
+      Cart cart = new Cart();
+      cartRepository.save(cart);
+      user.setCart(cart);
+      return userRepository.save(user);
+    });
+    principal = UserPrincipal.of(saved);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void parallelAddsAreNotLost() throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      futures.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < ADDS_PER_THREAD; j++) {
+          assertTrue(cartService.addItem(principal, ITEM_ID, 1).isPresent());
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(60, TimeUnit.SECONDS);
+    }
+
+    int expectedUnits = THREADS * ADDS_PER_THREAD;
+    new TransactionTemplate(transactionManager).execute(status -> {
+      Item item = itemRepository.findById(ITEM_ID).get();
+      Cart cart = userRepository.findByUsername(username).getCart();
+      assertEquals(1, cart.getLines().size());
+      CartLine line = cart.getLines().get(0);
+      assertEquals(expectedUnits, line.getQuantity());
+      assertEquals(0,
+          cart.getTotal().compareTo(item.getPrice().multiply(new BigDecimal(expectedUnits))));
+      return null;
+    });
+  }
+}
@@ -1,5 +1,6 @@
 package com.gauravrmsc.ecommerce;
 
+import com.auth0.jwt.JWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gauravrmsc.ecommerce.model.persistence.Cart;
 import com.gauravrmsc.ecommerce.model.persistence.Item;
@@ -7,9 +8,18 @@ import com.gauravrmsc.ecommerce.model.persistence.User;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.requests.BatchCartRequest;
+import com.gauravrmsc.ecommerce.model.requests.CartDelta;
 import com.gauravrmsc.ecommerce.model.requests.ModifyCartRequest;
+import com.gauravrmsc.ecommerce.model.responses.BatchCartResponse;
+import com.gauravrmsc.ecommerce.model.responses.CartDeltaResult;
+import com.gauravrmsc.ecommerce.model.responses.CartResponse;
+import com.gauravrmsc.ecommerce.security.UserPrincipalCache;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,8 +33,18 @@ import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
 import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -41,11 +61,15 @@ public class CartControllerTest {
   UserRepository userRepository;
   @MockBean
   CartRepository cartRepository;
+  @Autowired
+  UserPrincipalCache userPrincipalCache;
   private static final String BASE_URL = "/api/cart";
   private static final String ADD_TO_CART_URL = BASE_URL + "/addToCart";
   private static final String REMOVE_FROM_CART_URL = BASE_URL + "/removeFromCart";
-  private static final String authenticationToken =
-      "BearereyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJnYXVyYXYiLCJleHAiOjE1OTYxNjk0NDN9.xH82UbF3T_47uEYAo4m7QimX6CUo2XgnH3l7sSi5Olwdq_0zx9EtVrNKdIUfiOYbrlk7QU4dWlsdzg5CK46adw";
+  private static final String BATCH_URL = BASE_URL + "/batch";
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
   private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
   private static final ObjectMapper mapper = new ObjectMapper();
   private static final String USERNAME = "gaurav";
@@ -60,13 +84,15 @@ public class CartControllerTest {
   public void setup() {
     String hashedPassword = encoder.encode(PASSWORD);
     user = new User(USERNAME, hashedPassword);
-    item = new Item(ITEM_ID, ITEM_NAME, new BigDecimal(2.99), "A widget that is round");
+    item = new Item(ITEM_ID, ITEM_NAME, new BigDecimal("2.99"), "A widget that is round");
     cart = new Cart();
     cart.setId(1l);
-    cart.setItems(new ArrayList<>());
+    cart.setLines(new ArrayList<>());
     cart.setTotal(new BigDecimal(0));
     user.setCart(cart);
     cart.setUser(user);
+    userPrincipalCache.invalidate(USERNAME);
+    when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
   }
 
   @Test
@@ -80,8 +106,10 @@ public class CartControllerTest {
             .contentType("application/json").header(HEADER_STRING, authenticationToken))
         .andExpect(status().isOk()).andReturn().getResponse();
     String responseText = response.getContentAsString();
-    Cart responseCart = mapper.readValue(responseText, Cart.class);
-    assertEquals(10, responseCart.getItems().size());
+    CartResponse responseCart = mapper.readValue(responseText, CartResponse.class);
+    assertEquals(1, responseCart.getLines().size());
+    assertEquals(10, responseCart.getLines().get(0).getQuantity());
+    assertEquals(0, responseCart.getTotal().compareTo(item.getPrice().multiply(new BigDecimal(10))));
   }
 
 
@@ -106,6 +134,17 @@ public class CartControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  public void modifyingAnotherUsersCartIsForbidden() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(itemRepository.findById(ITEM_ID)).thenReturn(Optional.of(item));
+    ModifyCartRequest request = new ModifyCartRequest("someone-else", ITEM_ID, 10);
+    mockMvc.perform(post(ADD_TO_CART_URL).content(mapper.writeValueAsString(request))
+        .contentType("application/json").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isForbidden());
+    assertEquals(0, cart.getLines().size());
+  }
+
   @Test
   public void removeFromCartHappyPathTest() throws Exception {
     when(userRepository.findByUsername(USERNAME)).thenReturn(user);
@@ -117,8 +156,26 @@ public class CartControllerTest {
             .contentType("application/json").header(HEADER_STRING, authenticationToken))
         .andExpect(status().isOk()).andReturn().getResponse();
     String responseText = response.getContentAsString();
-    Cart responseCart = mapper.readValue(responseText, Cart.class);
-    assertEquals(0, responseCart.getItems().size());
+    CartResponse responseCart = mapper.readValue(responseText, CartResponse.class);
+    assertEquals(0, responseCart.getLines().size());
+    assertEquals(0, responseCart.getTotal().compareTo(BigDecimal.ZERO));
+  }
+
+  @Test
+  public void removeFromCartReducesLineQuantity() throws Exception {
+    cart.addItem(item, 10);
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(itemRepository.findById(ITEM_ID)).thenReturn(Optional.of(item));
+    when(cartRepository.save(cart)).thenReturn(cart);
+    ModifyCartRequest request = new ModifyCartRequest(USERNAME, ITEM_ID, 4);
+    MockHttpServletResponse response = mockMvc.perform(
+        post(REMOVE_FROM_CART_URL).content(mapper.writeValueAsString(request))
+            .contentType("application/json").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andReturn().getResponse();
+    CartResponse responseCart = mapper.readValue(response.getContentAsString(), CartResponse.class);
+    assertEquals(1, responseCart.getLines().size());
+    assertEquals(6, responseCart.getLines().get(0).getQuantity());
+    assertEquals(0, responseCart.getTotal().compareTo(item.getPrice().multiply(new BigDecimal(6))));
   }
 
   @Test
@@ -142,4 +199,39 @@ public class CartControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  public void batchAppliesValidLinesAndReportsTheRest() throws Exception {
+    Item square = new Item(2l, "Square Widget", new BigDecimal("1.99"), "A widget that is square");
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(itemRepository.findAllById(any())).thenReturn(Arrays.asList(item, square));
+    BatchCartRequest request = new BatchCartRequest(USERNAME, Arrays.asList(
+        new CartDelta(ITEM_ID, 3), new CartDelta(99l, 1), new CartDelta(2l, -1),
+        new CartDelta(ITEM_ID, -1), new CartDelta(2l, 0)));
+    MockHttpServletResponse response = mockMvc.perform(
+        post(BATCH_URL).content(mapper.writeValueAsString(request))
+            .contentType("application/json").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andReturn().getResponse();
+    BatchCartResponse batch = mapper.readValue(response.getContentAsString(),
+        BatchCartResponse.class);
+
+    assertEquals(5, batch.getResults().size());
+    assertTrue(batch.getResults().get(0).isApplied());
+    assertNull(batch.getResults().get(0).getError());
+    assertEquals(CartDeltaResult.ITEM_NOT_FOUND, batch.getResults().get(1).getError());
+    assertEquals(CartDeltaResult.NOT_IN_CART, batch.getResults().get(2).getError());
+    assertTrue(batch.getResults().get(3).isApplied());
+    assertFalse(batch.getResults().get(4).isApplied());
+    assertEquals(CartDeltaResult.INVALID_QUANTITY, batch.getResults().get(4).getError());
+    assertEquals(2, batch.getCart().getLines().get(0).getQuantity());
+    assertEquals(0,
+        batch.getCart().getTotal().compareTo(item.getPrice().multiply(new BigDecimal(2))));
+    verify(itemRepository, times(1)).findAllById(any());
+    verify(cartRepository, times(1)).save(cart);
+
+    // an empty batch is rejected
+    request = new BatchCartRequest(USERNAME, Collections.emptyList());
+    mockMvc.perform(post(BATCH_URL).content(mapper.writeValueAsString(request))
+        .contentType("application/json").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isBadRequest());
+  }
 }
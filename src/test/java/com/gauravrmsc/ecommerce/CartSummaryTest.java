@@ -0,0 +1,109 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.CartLine;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import java.util.Date;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(classes = {ECommerceApplication.class})
+public class CartSummaryTest {
+  private static final String SUMMARY_URL = "/api/cart/summary";
+  @Autowired
+  MockMvc mockMvc;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  CartRepository cartRepository;
+  @Autowired
+  ItemRepository itemRepository;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  private User user;
+  private String token;
+
+  @BeforeEach
+  public void setup() {
+    user = new TransactionTemplate(transactionManager).execute(status -> {
+      User user = new User("summary-" + System.nanoTime(), "not-a-real-hash");
+      Cart cart = new Cart();
+      cart.addItem(itemRepository.findById(1l).get(), 3);
+      cart.addItem(itemRepository.findById(2l).get());
+      cartRepository.save(cart);
+      user.setCart(cart);
+      return userRepository.save(user);
+    });
+    token = TOKEN_PREFIX + JWT.create().withSubject(user.getUsername())
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512(SECRET.getBytes()));
+  }
+
+  @Test
+  public void summaryIsOneQuery() throws Exception {
+    mockMvc.perform(get(SUMMARY_URL).header(HEADER_STRING, token)).andExpect(status().isOk());
+
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    long statements = statistics.getPrepareStatementCount();
+    long entities = statistics.getEntityLoadCount();
+    mockMvc.perform(get(SUMMARY_URL).header(HEADER_STRING, token)).andExpect(status().isOk())
+        .andExpect(jsonPath("$.lineCount").value(2))
+        .andExpect(jsonPath("$.itemCount").value(4))
+        .andExpect(jsonPath("$.total").value(10.96));
+    assertEquals(1, statistics.getPrepareStatementCount() - statements);
+    assertEquals(entities, statistics.getEntityLoadCount());
+  }
+
+  @Test
+  public void fullCartReferencesItemsWithoutLoadingThem() throws Exception {
+    String body = "{\"username\":\"" + user.getUsername() + "\",\"itemId\":2,\"quantity\":1}";
+    mockMvc.perform(post("/api/cart/addToCart").contentType("application/json").content(body)
+        .header(HEADER_STRING, token)).andExpect(status().isOk())
+        .andExpect(jsonPath("$.lines[0].itemId").value(1))
+        .andExpect(jsonPath("$.lines[1].itemId").value(2))
+        .andExpect(jsonPath("$.lines[1].quantity").value(2))
+        .andExpect(jsonPath("$.lines[1].item").doesNotExist())
+        .andExpect(jsonPath("$.total").value(12.95));
+  }
+
+  @Test
+  public void cartItemsAreNotLoadedWithTheCart() {
+    new TransactionTemplate(transactionManager).execute(status -> {
+      Cart cart = userRepository.findById(user.getId()).get().getCart();
+      for (CartLine line : cart.getLines()) {
+        assertFalse(Hibernate.isInitialized(line.getItem()));
+      }
+      return null;
+    });
+  }
+}
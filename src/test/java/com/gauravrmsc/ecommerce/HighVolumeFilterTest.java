@@ -0,0 +1,53 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.logging.HighVolumeFilter;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Filter.Result;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HighVolumeFilterTest {
+  private static final Marker HIGH_VOLUME = MarkerManager.getMarker("HIGH_VOLUME");
+
+  private static LogEvent event(Marker marker) {
+    return Log4jLogEvent.newBuilder().setLevel(Level.INFO).setMarker(marker)
+        .setMessage(new SimpleMessage("Product 1 viewed")).build();
+  }
+
+  @Test
+  public void unmarkedEventsAreNeverDropped() {
+    HighVolumeFilter filter = HighVolumeFilter.createFilter("HIGH_VOLUME", 0.0, 1, 1);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(Result.NEUTRAL, filter.filter(event(null)));
+      assertEquals(Result.NEUTRAL, filter.filter(event(MarkerManager.getMarker("OTHER"))));
+    }
+  }
+
+  @Test
+  public void zeroSampleRateDropsMarkedEvents() {
+    HighVolumeFilter filter = HighVolumeFilter.createFilter("HIGH_VOLUME", 0.0, 0, 1);
+
+    assertEquals(Result.DENY, filter.filter(event(HIGH_VOLUME)));
+    assertEquals(Result.DENY, filter.filter(null, Level.INFO, HIGH_VOLUME, "Product {} viewed", 1));
+  }
+
+  @Test
+  public void rateLimitAllowsABurstThenDrops() {
+    // One event per hour so that the bucket cannot refill while the test runs.
+    double ratePerSecond = 1.0 / TimeUnit.HOURS.toSeconds(1);
+    HighVolumeFilter filter = HighVolumeFilter.createFilter("HIGH_VOLUME", 1.0, ratePerSecond, 5);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(Result.NEUTRAL, filter.filter(event(HIGH_VOLUME)));
+    }
+    assertEquals(Result.DENY, filter.filter(event(HIGH_VOLUME)));
+  }
+}
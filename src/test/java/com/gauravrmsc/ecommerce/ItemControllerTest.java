@@ -1,14 +1,23 @@
 package com.gauravrmsc.ecommerce;
 
 
+import com.auth0.jwt.JWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gauravrmsc.ecommerce.model.persistence.Item;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.responses.ItemPage;
+import com.gauravrmsc.ecommerce.model.responses.ItemSearchResult;
+import com.gauravrmsc.ecommerce.search.ItemSearchIndex;
+import com.gauravrmsc.ecommerce.service.CatalogVersion;
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,14 +26,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
 import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -37,10 +60,15 @@ public class ItemControllerTest {
   MockMvc mockMvc;
   @MockBean
   ItemRepository itemRepository;
+  @Autowired
+  ItemSearchIndex itemSearchIndex;
+  @Autowired
+  CatalogVersion catalogVersion;
   private static final String BASE_URL = "/api/item";
   private static final String FIND_ITEM_BY_NAME_URL = BASE_URL + "/name";
-  private static final String authenticationToken =
-      "BearereyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJnYXVyYXYiLCJleHAiOjE1OTYxNjk0NDN9.xH82UbF3T_47uEYAo4m7QimX6CUo2XgnH3l7sSi5Olwdq_0zx9EtVrNKdIUfiOYbrlk7QU4dWlsdzg5CK46adw";
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
   private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
   private static final ObjectMapper mapper = new ObjectMapper();
   private static List<Item> items;
@@ -54,6 +82,14 @@ public class ItemControllerTest {
     item2 = new Item(2l, "Square Widget", new BigDecimal(1.99), "A widget that is square");
     items.add(item1);
     items.add(item2);
+    // The repository is mocked, so no write moves the version on between tests
+    catalogVersion.bump();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    itemSearchIndex.remove(item1.getId());
+    itemSearchIndex.remove(item2.getId());
   }
 
   @Test
@@ -97,17 +133,17 @@ public class ItemControllerTest {
 
   @Test
   public void findItemsByNameHappPath() throws Exception {
-    when(itemRepository.findByName("Round Widget")).thenReturn(Arrays.asList(item1));
+    itemSearchIndex.index(item1);
     mockMvc.perform(
         get(FIND_ITEM_BY_NAME_URL + "/Round Widget").header(HEADER_STRING, authenticationToken)
             .contentType("application/json")).andExpect(status().isOk())
         .andExpect(content().string(mapper.writeValueAsString(Arrays.asList(item1))));
+    verify(itemRepository, never()).findByName(any(String.class));
   }
 
   @Test
   public void findItemByNameErrorPath() throws Exception {
-    //Item not present in database returns 404
-    when(itemRepository.findByName(any(String.class))).thenReturn(null);
+    //Item not present in the index returns 404
     mockMvc.perform(
         get(FIND_ITEM_BY_NAME_URL + "/Round Widget").header(HEADER_STRING, authenticationToken)
             .contentType("application/json")).andExpect(status().isNotFound());
@@ -116,4 +152,142 @@ public class ItemControllerTest {
     mockMvc.perform(get(FIND_ITEM_BY_NAME_URL + "/Round Widgit").contentType("application/json"))
         .andExpect(status().isForbidden());
   }
+
+  @Test
+  public void itemPageHappyPath() throws Exception {
+    when(itemRepository.findByIdGreaterThanOrderByIdAsc(0l, PageRequest.of(0, 2))).thenReturn(items);
+    String responseText = mockMvc.perform(
+        get(BASE_URL + "/page?after=0&limit=2").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    ItemPage page = mapper.readValue(responseText, ItemPage.class);
+    assertEquals(2, page.getItems().size());
+    assertEquals(Long.valueOf(2), page.getNextCursor());
+
+    //A short page is the last one and carries no cursor
+    when(itemRepository.findByIdGreaterThanOrderByIdAsc(2l, PageRequest.of(0, 2)))
+        .thenReturn(new ArrayList<>());
+    responseText = mockMvc.perform(
+        get(BASE_URL + "/page?after=2&limit=2").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    page = mapper.readValue(responseText, ItemPage.class);
+    assertEquals(0, page.getItems().size());
+    assertNull(page.getNextCursor());
+  }
+
+  @Test
+  public void onlyTheFirstPageIsCached() throws Exception {
+    when(itemRepository.findByIdGreaterThanOrderByIdAsc(0l, PageRequest.of(0, 1)))
+        .thenReturn(items.subList(0, 1));
+    when(itemRepository.findByIdGreaterThanOrderByIdAsc(1l, PageRequest.of(0, 1)))
+        .thenReturn(items.subList(1, 2));
+
+    //Limits that clamp to the same size share one cached first page
+    for (String limit : Arrays.asList("1", "0", "-5")) {
+      mockMvc.perform(get(BASE_URL + "/page?after=0&limit=" + limit)
+          .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk());
+    }
+    verify(itemRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0l, PageRequest.of(0, 1));
+
+    //Deeper pages are read every time
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(get(BASE_URL + "/page?after=1&limit=1")
+          .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk());
+    }
+    verify(itemRepository, times(2)).findByIdGreaterThanOrderByIdAsc(1l, PageRequest.of(0, 1));
+  }
+
+  @Test
+  public void streamItemsWritesOneItemPerLine() throws Exception {
+    when(itemRepository.streamAll()).thenReturn(items.stream());
+    mockMvc.perform(get(BASE_URL + "/stream").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Type", "application/x-ndjson;charset=UTF-8"))
+        .andExpect(content().string(
+            mapper.writeValueAsString(item1) + "\n" + mapper.writeValueAsString(item2) + "\n"));
+  }
+
+  @Test
+  public void searchItemsToleratesTypos() throws Exception {
+    itemSearchIndex.index(item1);
+    itemSearchIndex.index(item2);
+    String responseText = mockMvc.perform(
+        get(BASE_URL + "/search?q=round widgt").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    ItemSearchResult result = mapper.readValue(responseText, ItemSearchResult.class);
+    assertEquals(2, result.getTotal());
+    assertEquals(item1, result.getItems().get(0));
+  }
+
+  @Test
+  public void findItemsByNameRanksExactMatchesFirst() throws Exception {
+    Item plain = new Item(3l, "Widget", new BigDecimal("0.99"), "Just a widget");
+    itemSearchIndex.index(item1);
+    itemSearchIndex.index(item2);
+    itemSearchIndex.index(plain);
+    try {
+      mockMvc.perform(
+          get(FIND_ITEM_BY_NAME_URL + "/widget").header(HEADER_STRING, authenticationToken))
+          .andExpect(status().isOk())
+          .andExpect(content().string(mapper.writeValueAsString(Arrays.asList(plain, item1, item2))));
+    } finally {
+      itemSearchIndex.remove(plain.getId());
+    }
+  }
+
+  @Test
+  public void catalogueReadsAreConditionalAndServedFromCachedBytes() throws Exception {
+    when(itemRepository.findById(1l)).thenReturn(Optional.of(item1));
+    String etag = mockMvc.perform(get(BASE_URL + "/1").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk())
+        .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+        .andExpect(content().string(mapper.writeValueAsString(item1)))
+        .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    mockMvc.perform(get(BASE_URL + "/1").header(HEADER_STRING, authenticationToken)
+        .header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+    mockMvc.perform(get(BASE_URL + "/1").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk()).andExpect(header().string(HttpHeaders.ETAG, etag));
+    verify(itemRepository, times(1)).findById(1l);
+
+    // an item write changes the validator and the body is loaded again
+    catalogVersion.bump();
+    mockMvc.perform(get(BASE_URL + "/1").header(HEADER_STRING, authenticationToken)
+        .header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isOk());
+    verify(itemRepository, times(2)).findById(1l);
+  }
+
+  @Test
+  public void largeCatalogueResponsesAreGzipped() throws Exception {
+    List<Item> many = new ArrayList<>();
+    for (long id = 1; id <= 50; id++) {
+      many.add(new Item(id, "Widget " + id, new BigDecimal("1.99"), "A widget"));
+    }
+    when(itemRepository.findAll()).thenReturn(many);
+    byte[] body = mockMvc.perform(get(BASE_URL).header(HEADER_STRING, authenticationToken)
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate")).andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andExpect(result -> assertTrue(
+            result.getResponse().getHeaders(HttpHeaders.VARY).contains("Accept, Accept-Encoding")))
+        .andReturn().getResponse().getContentAsByteArray();
+    String json = mapper.writeValueAsString(many);
+    byte[] unzipped = StreamUtils.copyToByteArray(
+        new GZIPInputStream(new ByteArrayInputStream(body)));
+    assertEquals(json, new String(unzipped, "UTF-8"));
+
+    mockMvc.perform(get(BASE_URL).header(HEADER_STRING, authenticationToken)
+        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")).andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(content().string(json));
+  }
+
+  @Test
+  public void negotiatedCatalogueResponsesVaryOnAccept() throws Exception {
+    when(itemRepository.findById(1l))
+        .thenReturn(Optional.of(new Item(1l, "Widget", new BigDecimal("1.99"), "A widget")));
+    mockMvc.perform(get(BASE_URL + "/1").header(HEADER_STRING, authenticationToken)
+        .header(HttpHeaders.ACCEPT, "application/x-jackson-smile")).andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-jackson-smile"))
+        .andExpect(result -> assertTrue(
+            result.getResponse().getHeaders(HttpHeaders.VARY).contains("Accept, Accept-Encoding")));
+  }
 }
@@ -0,0 +1,150 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.responses.ImportReport;
+import com.gauravrmsc.ecommerce.service.CatalogVersion;
+import com.gauravrmsc.ecommerce.service.ItemImportService;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(classes = {ECommerceApplication.class},
+    properties = {"item-import.chunk-size=2", "item-import.admins=importer"})
+public class ItemImportTest {
+  private static final String IMPORT_URL = "/api/item/import";
+  @Autowired
+  MockMvc mockMvc;
+  @Autowired
+  ItemImportService itemImportService;
+  @Autowired
+  ItemRepository itemRepository;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  CartRepository cartRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  @Autowired
+  CatalogVersion catalogVersion;
+
+  @Test
+  public void csvRowsAreValidatedAndUpsertedBySku() throws Exception {
+    String csv = "sku,name,price,description\n"
+        + "CSV-1,Hex Bolt,0.25,\"A bolt, hexagonal\"\n"
+        + "CSV-2,Wing Nut,0.10,A nut with wings\n"
+        + "CSV-3,,1.00,No name\n"
+        + "CSV-4,Washer,-1,Negative price\n"
+        + "CSV-5,Lock Nut,0.125,Too precise\n";
+    long version = catalogVersion.current();
+    ImportReport first = itemImportService.importItems(stream(csv), ItemImportService.Format.CSV);
+    assertEquals(5, first.getRead());
+    assertEquals(2, first.getInserted());
+    assertEquals(3, first.getRejected());
+    assertTrue(first.getErrors().get(0).startsWith("line 4:"));
+    assertTrue(catalogVersion.current() > version);
+
+    String update = "name,price,sku\nHex Bolt,0.30,CSV-1\nSpring Washer,0.05,CSV-6\n";
+    ImportReport second = itemImportService.importItems(stream(update),
+        ItemImportService.Format.CSV);
+    assertEquals(1, second.getInserted());
+    assertEquals(1, second.getUpdated());
+
+    List<Item> bolts = itemRepository.findBySkuIn(Collections.singleton("CSV-1"));
+    assertEquals(1, bolts.size());
+    assertEquals(0, bolts.get(0).getPrice().compareTo(new BigDecimal("0.30")));
+    assertEquals("", bolts.get(0).getDescription());
+    assertTrue(bolts.get(0).getId() >= 1000);
+  }
+
+  @Test
+  public void ndjsonRowsWithoutSkuAreUpsertedByName() throws Exception {
+    String ndjson = "{\"name\":\"Json Gear\",\"price\":4.5,\"description\":\"A gear\"}\n"
+        + "not json\n"
+        + "{\"name\":\"Json Gear\",\"price\":\"5.00\",\"description\":\"A better gear\"}\n";
+    ImportReport report = itemImportService.importItems(stream(ndjson),
+        ItemImportService.Format.NDJSON);
+    assertEquals(3, report.getRead());
+    assertEquals(1, report.getInserted());
+    assertEquals(1, report.getUpdated());
+    assertEquals(1, report.getRejected());
+
+    List<Item> gears = itemRepository.findByName("Json Gear");
+    assertEquals(1, gears.size());
+    assertEquals("A better gear", gears.get(0).getDescription());
+  }
+
+  @Test
+  public void csvWithoutRequiredColumnsIsRefused() {
+    assertThrows(IllegalArgumentException.class, () -> itemImportService
+        .importItems(stream("sku,description\nX,Y\n"), ItemImportService.Format.CSV));
+  }
+
+  @Test
+  public void onlyAdminsMayImport() throws Exception {
+    createUser("importer");
+    createUser("shopper");
+    String csv = "name,price\nEndpoint Widget,3.00\n";
+    mockMvc.perform(post(IMPORT_URL).contentType(ItemImportService.CSV).content(csv)
+        .header(HEADER_STRING, token("shopper"))).andExpect(status().isForbidden());
+    mockMvc.perform(post(IMPORT_URL).contentType(ItemImportService.CSV).content(csv)
+        .header(HEADER_STRING, token("importer"))).andExpect(status().isOk())
+        .andExpect(jsonPath("$.inserted").value(1));
+    mockMvc.perform(post(IMPORT_URL).contentType(ItemImportService.CSV).content("sku\nX\n")
+        .header(HEADER_STRING, token("importer"))).andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.inserted").value(0))
+        .andExpect(jsonPath("$.errors[0]")
+            .value("CSV header must name at least the name and price columns"));
+  }
+
+  private void createUser(String username) {
+    new TransactionTemplate(transactionManager).execute(status -> {
+      if (userRepository.findByUsername(username) == null) {
+        User user = new User(username, "not-a-real-hash");
+        Cart cart = new Cart();
+        cartRepository.save(cart);
+        user.setCart(cart);
+        userRepository.save(user);
+      }
+      return null;
+    });
+  }
+
+  private static String token(String username) {
+    return TOKEN_PREFIX + JWT.create().withSubject(username)
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512(SECRET.getBytes()));
+  }
+
+  private static ByteArrayInputStream stream(String content) {
+    return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+  }
+}
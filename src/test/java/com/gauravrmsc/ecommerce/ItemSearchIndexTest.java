@@ -0,0 +1,67 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.responses.ItemSearchResult;
+import com.gauravrmsc.ecommerce.search.ItemSearchIndex;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ItemSearchIndexTest {
+  private ItemSearchIndex index;
+
+  @BeforeEach
+  public void setup() {
+    index = new ItemSearchIndex();
+    index.index(new Item(1l, "Round Widget", new BigDecimal("2.99"), "A widget that is round"));
+    index.index(new Item(2l, "Square Widget", new BigDecimal("1.99"), "A widget that is square"));
+    index.index(new Item(3l, "Gadget", new BigDecimal("9.99"), "Works with any round widget",
+        "GDG-3"));
+  }
+
+  @Test
+  public void singleWordMatchesNameAndDescription() {
+    ItemSearchResult result = index.search("widget", 0, 10);
+    assertEquals(3, result.getTotal());
+    //name matches rank above description only matches
+    assertEquals(Long.valueOf(3), result.getItems().get(2).getId());
+  }
+
+  @Test
+  public void misspelledQueryIsTolerated() {
+    ItemSearchResult result = index.search("round widgt", 0, 10);
+    assertEquals(Long.valueOf(1), result.getItems().get(0).getId());
+    ItemSearchResult gadget = index.search("gdget", 0, 10);
+    assertEquals(1, gadget.getTotal());
+    assertEquals(Long.valueOf(3), gadget.getItems().get(0).getId());
+    assertEquals("GDG-3", gadget.getItems().get(0).getSku());
+    assertEquals(0, index.search("xylophone", 0, 10).getTotal());
+  }
+
+  @Test
+  public void prefixQueryMatches() {
+    assertEquals(Long.valueOf(2), index.search("squ", 0, 10).getItems().get(0).getId());
+  }
+
+  @Test
+  public void resultsArePaged() {
+    ItemSearchResult firstPage = index.search("widget", 0, 2);
+    ItemSearchResult secondPage = index.search("widget", 1, 2);
+    assertEquals(2, firstPage.getItems().size());
+    assertEquals(1, secondPage.getItems().size());
+    assertEquals(3, secondPage.getTotal());
+  }
+
+  @Test
+  public void updatesAndRemovalsAreApplied() {
+    index.index(new Item(2l, "Square Sprocket", new BigDecimal("1.99"), "A sprocket"));
+    assertEquals(2, index.search("widget", 0, 10).getTotal());
+    assertEquals(Long.valueOf(2), index.search("sprocket", 0, 10).getItems().get(0).getId());
+
+    index.remove(1l);
+    assertEquals(1, index.search("widget", 0, 10).getTotal());
+    assertEquals(2, index.size());
+  }
+}
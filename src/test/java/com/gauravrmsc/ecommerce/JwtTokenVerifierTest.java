@@ -0,0 +1,57 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.gauravrmsc.ecommerce.security.JwtTokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtTokenVerifierTest {
+  private static final String USERNAME = "gaurav";
+  private JwtTokenVerifier verifier;
+
+  @BeforeEach
+  public void setup() {
+    verifier = new JwtTokenVerifier(100, new SimpleMeterRegistry());
+  }
+
+  @Test
+  public void repeatedTokenIsServedFromCache() {
+    String token = JWT.create().withSubject(USERNAME)
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512(SECRET.getBytes()));
+    assertEquals(USERNAME, verifier.verify(token));
+    assertEquals(USERNAME, verifier.verify(token));
+    assertEquals(USERNAME, verifier.verify(token));
+    assertEquals(1, verifier.stats().missCount());
+    assertEquals(2, verifier.stats().hitCount());
+  }
+
+  @Test
+  public void expiredTokenIsRejected() {
+    String token = JWT.create().withSubject(USERNAME)
+        .withExpiresAt(new Date(System.currentTimeMillis() - 60_000))
+        .sign(HMAC512(SECRET.getBytes()));
+    assertThrows(TokenExpiredException.class, () -> verifier.verify(token));
+    assertThrows(TokenExpiredException.class, () -> verifier.verify(token));
+    assertEquals(0, verifier.stats().hitCount());
+  }
+
+  @Test
+  public void tokenSignedWithAnotherSecretIsRejected() {
+    String token = JWT.create().withSubject(USERNAME)
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512("AnotherSecret".getBytes()));
+    assertThrows(JWTVerificationException.class, () -> verifier.verify(token));
+    assertEquals(0, verifier.stats().hitCount());
+  }
+}
@@ -0,0 +1,97 @@
+package com.gauravrmsc.ecommerce;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.requests.LoginRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = {ECommerceApplication.class}, properties = {"encoder.strength=4",
+    "login-rate-limit.user.burst=2", "login-rate-limit.user.per-minute=1",
+    "login-rate-limit.ip.burst=5", "login-rate-limit.ip.per-minute=1"})
+@AutoConfigureMockMvc
+public class LoginRateLimitTest {
+  private static final ObjectMapper mapper = new ObjectMapper();
+  @MockBean
+  UserRepository userRepository;
+  @Autowired
+  MockMvc mockMvc;
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @Test
+  public void usernameIsThrottledBeforeLookup() throws Exception {
+    mockMvc.perform(login("alice", "10.0.0.1")).andExpect(status().isUnauthorized());
+    mockMvc.perform(login("alice", "10.0.0.2")).andExpect(status().isUnauthorized());
+    mockMvc.perform(login("alice", "10.0.0.3")).andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"));
+    verify(userRepository, times(2)).findByUsername("alice");
+    assertTrue(meterRegistry.get("security.login.rate.limit").tag("limit", "user")
+        .tag("result", "rejected").counter().count() >= 1);
+  }
+
+  @Test
+  public void clientAddressIsThrottledAcrossUsernames() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      mockMvc.perform(login("stuffed" + i, "10.0.1.1")).andExpect(status().isUnauthorized());
+    }
+    mockMvc.perform(login("stuffed-next", "10.0.1.1")).andExpect(status().isTooManyRequests());
+    verify(userRepository, never()).findByUsername("stuffed-next");
+    mockMvc.perform(login("stuffed-next", "10.0.1.2")).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  public void ipv6ClientsAreThrottledPerSlash64() throws Exception {
+    for (int i = 1; i <= 5; i++) {
+      mockMvc.perform(login("roaming" + i, "2001:db8:0:1::" + i))
+          .andExpect(status().isUnauthorized());
+    }
+    mockMvc.perform(login("roaming-next", "2001:db8:0:1:abcd::99"))
+        .andExpect(status().isTooManyRequests());
+    mockMvc.perform(login("roaming-next", "2001:db8:0:2::1")).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  public void successfulLoginsDoNotUseUpTheUsernameLimit() throws Exception {
+    when(userRepository.findByUsername("bob"))
+        .thenReturn(new User("bob", new BCryptPasswordEncoder(4).encode("secret")));
+    for (int i = 0; i < 4; i++) {
+      mockMvc.perform(login("bob", "10.0.2.1")).andExpect(status().isOk());
+    }
+    mockMvc.perform(login("bob", "wrong", "10.0.2.2")).andExpect(status().isUnauthorized());
+    mockMvc.perform(login("bob", "wrong", "10.0.2.2")).andExpect(status().isUnauthorized());
+    mockMvc.perform(login("bob", "wrong", "10.0.2.2")).andExpect(status().isTooManyRequests());
+  }
+
+  private static MockHttpServletRequestBuilder login(String username, String address)
+      throws Exception {
+    return login(username, "secret", address);
+  }
+
+  private static MockHttpServletRequestBuilder login(String username, String password,
+      String address) throws Exception {
+    return post("/login").content(mapper.writeValueAsString(new LoginRequest(username, password)))
+        .with(request -> {
+          request.setRemoteAddr(address);
+          return request;
+        });
+  }
+}
@@ -21,12 +21,18 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
-@SpringBootTest(classes = {ECommerceApplication.class})
+@SpringBootTest(classes = {ECommerceApplication.class}, properties = {"encoder.strength=5"})
 @AutoConfigureMockMvc
 @ExtendWith(MockitoExtension.class)
 public class LoginTest {
@@ -71,4 +77,33 @@ public class LoginTest {
         mockMcv.perform(post(loginURI).content(requestBody)).andReturn().getResponse();
     mockMcv.perform(post(loginURI).content(requestBody)).andExpect(status().isOk());
   }
+
+  @Test
+  public void loginUpgradesHashWithLowerCost() throws Exception {
+    //stored hash uses cost 4, the application is configured for 5
+    User weakUser = new User("gauravrmsc", new BCryptPasswordEncoder(4).encode("98765"));
+    weakUser.setId(7l);
+    when(userRepository.findByUsername("gauravrmsc")).thenReturn(weakUser);
+    String requestBody = mapper.writeValueAsString(new LoginRequest("gauravrmsc", "98765"));
+    mockMcv.perform(post(loginURI).content(requestBody)).andExpect(status().isOk());
+    verify(userRepository).updatePassword(eq(7l), argThat(hash -> hash.startsWith("$2a$05$")
+        && new BCryptPasswordEncoder().matches("98765", hash)));
+  }
+
+  @Test
+  public void loginKeepsHashWithHigherCost() throws Exception {
+    //stored hash uses the default cost 10, e.g. from a node that calibrated higher
+    when(userRepository.findByUsername("gauravrmsc")).thenReturn(user);
+    String requestBody = mapper.writeValueAsString(new LoginRequest("gauravrmsc", "98765"));
+    mockMcv.perform(post(loginURI).content(requestBody)).andExpect(status().isOk());
+    verify(userRepository, never()).updatePassword(anyLong(), anyString());
+  }
+
+  @Test
+  public void failedLoginDoesNotRehash() throws Exception {
+    when(userRepository.findByUsername("gauravrmsc")).thenReturn(user);
+    String requestBody = mapper.writeValueAsString(new LoginRequest("gauravrmsc", "wrong"));
+    mockMcv.perform(post(loginURI).content(requestBody)).andExpect(status().isUnauthorized());
+    verify(userRepository, never()).updatePassword(anyLong(), anyString());
+  }
 }
@@ -0,0 +1,53 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(classes = {ECommerceApplication.class})
+public class MetricsTest {
+  @Autowired
+  MockMvc mockMvc;
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
+
+  @Test
+  public void prometheusScrapeShowsHotPathMetrics() throws Exception {
+    mockMvc.perform(get("/api/item/1").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/prometheus").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString(
+            "http_server_requests_seconds_bucket{application=\"ecommerce\",exception=\"None\","
+                + "method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/item/{id}\"")))
+        .andExpect(content().string(containsString("security_jwt_verification_seconds_bucket")))
+        .andExpect(content().string(containsString("repository=\"ItemRepository\"")))
+        .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_count")))
+        .andExpect(content().string(containsString("hikaricp_connections_active")))
+        .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+        .andExpect(content().string(containsString("hibernate_second_level_cache_requests")));
+  }
+
+  @Test
+  public void actuatorEndpointsOtherThanHealthNeedAToken() throws Exception {
+    mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,49 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.model.Money;
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import java.math.BigDecimal;
+import java.util.Currency;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MoneyTest {
+
+  @Test
+  public void amountsAreRoundedHalfEvenToTheMinorUnit() {
+    assertEquals(298, Money.of(new BigDecimal("2.985")).getMinorUnits());
+    assertEquals(300, Money.of(new BigDecimal("2.995")).getMinorUnits());
+    assertEquals(299, Money.of(new BigDecimal(2.99)).getMinorUnits());
+    assertEquals(new BigDecimal("2.99"), Money.of(new BigDecimal("2.990")).toBigDecimal());
+    assertEquals(6, Money.of(new BigDecimal("5.5"), Currency.getInstance("JPY")).getMinorUnits());
+  }
+
+  @Test
+  public void arithmeticIsExact() {
+    Money price = Money.of(new BigDecimal("0.10"));
+    assertEquals(new BigDecimal("0.30"), price.times(3).toBigDecimal());
+    assertEquals(Money.ZERO, price.times(3).minus(Money.of(new BigDecimal("0.30"))));
+    assertThrows(ArithmeticException.class,
+        () -> Money.ofMinor(Long.MAX_VALUE, Money.DEFAULT_CURRENCY).plus(price));
+    assertThrows(IllegalArgumentException.class,
+        () -> price.plus(Money.ofMinor(10, Currency.getInstance("EUR"))));
+  }
+
+  @Test
+  public void cartTotalIsTheSumOfItsLines() {
+    Item round = new Item(1l, "Round Widget", new BigDecimal("2.99"), "A widget that is round");
+    Item square = new Item(2l, "Square Widget", new BigDecimal("1.99"), "A widget that is square");
+    Cart cart = new Cart();
+    cart.setTotal(new BigDecimal("100"));
+    cart.addItem(round, 3);
+    cart.addItem(square, 2);
+    assertEquals(new BigDecimal("12.95"), cart.getTotal());
+    cart.removeItem(round, 5);
+    assertEquals(new BigDecimal("3.98"), cart.getTotal());
+    cart.clear();
+    assertEquals(0, cart.getTotal().signum());
+  }
+}
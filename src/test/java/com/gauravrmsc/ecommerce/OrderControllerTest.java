@@ -1,17 +1,28 @@
 package com.gauravrmsc.ecommerce;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.auth0.jwt.JWT;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.gauravrmsc.ecommerce.model.persistence.Cart;
 import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.OrderLine;
 import com.gauravrmsc.ecommerce.model.persistence.User;
 import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.OrderRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.responses.OrderHistoryPage;
+import com.gauravrmsc.ecommerce.model.responses.OrderResponse;
+import com.gauravrmsc.ecommerce.model.responses.OrderSummary;
+import com.gauravrmsc.ecommerce.security.UserPrincipalCache;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
+import java.util.Date;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,15 +31,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
 import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
@@ -41,13 +67,18 @@ public class OrderControllerTest {
   UserRepository userRepository;
   @MockBean
   OrderRepository orderRepository;
+  @MockBean
+  CartRepository cartRepository;
+  @Autowired
+  UserPrincipalCache userPrincipalCache;
   private static final String BASE_URL = "/api/order";
   private static final String PLACE_ORDER_URL = BASE_URL + "/submit";
   private static final String HISTORY_URL = BASE_URL + "/history";
-  private static final String authenticationToken =
-      "BearereyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJnYXVyYXYiLCJleHAiOjE1OTYxNjk0NDN9.xH82UbF3T_47uEYAo4m7QimX6CUo2XgnH3l7sSi5Olwdq_0zx9EtVrNKdIUfiOYbrlk7QU4dWlsdzg5CK46adw";
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
   private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
-  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
   private static final String USERNAME = "gaurav";
   private static final String PASSWORD = "987654321";
   private static final String ITEM_NAME = "Round Widget";
@@ -61,14 +92,16 @@ public class OrderControllerTest {
   public void setup() {
     String hashedPassword = encoder.encode(PASSWORD);
     user = new User(USERNAME, hashedPassword);
-    item = new Item(ITEM_ID, ITEM_NAME, new BigDecimal(2.99), "A widget that is round");
+    item = new Item(ITEM_ID, ITEM_NAME, new BigDecimal("2.99"), "A widget that is round");
     cart = new Cart();
     cart.setId(1l);
-    cart.setItems(Arrays.asList(item));
-    cart.setTotal(new BigDecimal(2.99));
+    cart.addItem(item);
     user.setCart(cart);
     cart.setUser(user);
-    order = new UserOrder(1l, Arrays.asList(item), user, new BigDecimal(2.99));
+    order = new UserOrder(1l, Arrays.asList(new OrderLine(null, item, 1, item.getPrice())), user,
+        new BigDecimal("2.99"), Instant.now());
+    userPrincipalCache.invalidate(USERNAME);
+    when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
   }
 
   @Test
@@ -80,9 +113,39 @@ public class OrderControllerTest {
             .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk()).andReturn()
         .getResponse();
     String responseText = response.getContentAsString();
-    UserOrder userOrder = mapper.readValue(responseText, UserOrder.class);
-    assertEquals(1, userOrder.getItems().size());
-    assertEquals(new BigDecimal(2.99), userOrder.getTotal());
+    OrderResponse userOrder = mapper.readValue(responseText, OrderResponse.class);
+    assertEquals(1, userOrder.getLines().size());
+    assertEquals(new BigDecimal("2.99"), userOrder.getTotal());
+  }
+
+  @Test
+  public void submitIsIdempotentAndEmptiesTheCart() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    String idempotencyKey = "submit-" + System.nanoTime();
+
+    for (int i = 0; i < 2; i++) {
+      MockHttpServletResponse response = mockMvc.perform(
+          post(PLACE_ORDER_URL + "/" + USERNAME).contentType("application/json")
+              .header(HEADER_STRING, authenticationToken).header("Idempotency-Key", idempotencyKey))
+          .andExpect(status().isOk()).andReturn().getResponse();
+      OrderResponse userOrder = mapper.readValue(response.getContentAsString(), OrderResponse.class);
+      assertEquals(1, userOrder.getLines().size());
+    }
+
+    verify(orderRepository, times(1)).save(any(UserOrder.class));
+    verify(userRepository, times(1)).findByUsername(USERNAME);
+    assertEquals(0, cart.getLines().size());
+    assertEquals(0, cart.getTotal().signum());
+  }
+
+  @Test
+  public void ordersOfAnotherUserAreForbidden() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    mockMvc.perform(post(PLACE_ORDER_URL + "/someone-else").contentType("application/json")
+        .header(HEADER_STRING, authenticationToken)).andExpect(status().isForbidden());
+    mockMvc.perform(get(HISTORY_URL + "/someone-else").contentType("application/json")
+        .header(HEADER_STRING, authenticationToken)).andExpect(status().isForbidden());
+    verify(orderRepository, times(0)).save(any(UserOrder.class));
   }
 
   @Test
@@ -94,7 +157,7 @@ public class OrderControllerTest {
         .header(HEADER_STRING, authenticationToken)).andExpect(status().isNotFound());
 
     //0 order amount returned for an empty cart
-    cart.setItems(new ArrayList<>());
+    cart.setLines(new ArrayList<>());
     cart.setTotal(new BigDecimal(0));
     when(userRepository.findByUsername(USERNAME)).thenReturn(user);
     MockHttpServletResponse response = mockMvc.perform(
@@ -102,26 +165,26 @@ public class OrderControllerTest {
             .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk()).andReturn()
         .getResponse();
     String responseText = response.getContentAsString();
-    UserOrder userOrder = mapper.readValue(responseText, UserOrder.class);
-    assertEquals(0, userOrder.getItems().size());
-    assertEquals(new BigDecimal(0), userOrder.getTotal());
+    OrderResponse userOrder = mapper.readValue(responseText, OrderResponse.class);
+    assertEquals(0, userOrder.getLines().size());
+    assertEquals(0, userOrder.getTotal().signum());
 
   }
 
   @Test
   public void getOrdersForUserHappyPathTest() throws Exception {
     when(userRepository.findByUsername(USERNAME)).thenReturn(user);
-    when(orderRepository.findByUser(user)).thenReturn(Arrays.asList(order));
+    OrderSummary summary = new OrderSummary(1l, new BigDecimal("2.99"), 1, order.getCreatedAt());
+    when(orderRepository.findSummariesByUserId(user.getId(), PageRequest.of(0, 20)))
+        .thenReturn(new PageImpl<>(Arrays.asList(summary), PageRequest.of(0, 20), 1));
     MockHttpServletResponse response = mockMvc.perform(
         get(HISTORY_URL + "/" + USERNAME).contentType("application/json")
             .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk()).andReturn()
         .getResponse();
     String responseText = response.getContentAsString();
-    List<UserOrder> userOrder =
-        mapper.readValue(responseText, new TypeReference<List<UserOrder>>() {
-        });
-    assertEquals(1, userOrder.get(0).getItems().size());
-    assertEquals(new BigDecimal(2.99), userOrder.get(0).getTotal());
+    OrderHistoryPage history = mapper.readValue(responseText, OrderHistoryPage.class);
+    assertEquals(1, history.getTotal());
+    assertEquals(summary, history.getOrders().get(0));
   }
 
   @Test
@@ -132,21 +195,78 @@ public class OrderControllerTest {
     mockMvc.perform(get(HISTORY_URL + "/" + USERNAME).contentType("application/json")
         .header(HEADER_STRING, authenticationToken)).andExpect(status().isNotFound());
 
-    //Empty List returned when the user has yet not placed the order
+    //Empty page returned when the user has yet not placed the order
     when(userRepository.findByUsername(USERNAME)).thenReturn(user);
-    when(orderRepository.findByUser(user)).thenReturn(new ArrayList<>());
+    when(orderRepository.findSummariesByUserId(eq(user.getId()), any()))
+        .thenReturn(new PageImpl<>(new ArrayList<>()));
     MockHttpServletResponse response = mockMvc.perform(
         get(HISTORY_URL + "/" + USERNAME).contentType("application/json")
             .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk()).andReturn()
         .getResponse();
     String responseText = response.getContentAsString();
-    List<UserOrder> userOrder =
-        mapper.readValue(responseText, new TypeReference<List<UserOrder>>() {
-        });
-    assertEquals(0, userOrder.size());
+    OrderHistoryPage history = mapper.readValue(responseText, OrderHistoryPage.class);
+    assertEquals(0, history.getOrders().size());
+  }
 
+  @Test
+  public void getOrderDetail() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(orderRepository.findByIdAndUserId(1l, user.getId())).thenReturn(Optional.of(order));
+    MockHttpServletResponse response = mockMvc.perform(
+        get(HISTORY_URL + "/" + USERNAME + "/1").contentType("application/json")
+            .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk()).andReturn()
+        .getResponse();
+    OrderResponse userOrder = mapper.readValue(response.getContentAsString(), OrderResponse.class);
+    assertEquals(1, userOrder.getLines().size());
 
+    // someone else's order, or one that does not exist, is not found
+    when(orderRepository.findByIdAndUserId(eq(2l), anyLong())).thenReturn(Optional.empty());
+    mockMvc.perform(get(HISTORY_URL + "/" + USERNAME + "/2").contentType("application/json")
+        .header(HEADER_STRING, authenticationToken)).andExpect(status().isNotFound());
   }
 
+  @Test
+  public void orderDetailReferencesItemsById() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(orderRepository.findByIdAndUserId(1l, user.getId())).thenReturn(Optional.of(order));
+    mockMvc.perform(get(HISTORY_URL + "/" + USERNAME + "/1").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.lines[0].itemId").value(ITEM_ID))
+        .andExpect(jsonPath("$.lines[0].quantity").value(1))
+        .andExpect(jsonPath("$.lines[0].item").doesNotExist())
+        .andExpect(jsonPath("$.user").doesNotExist());
 
+    // only the requested top-level fields are written
+    mockMvc.perform(get(HISTORY_URL + "/" + USERNAME + "/1").param("fields", "id,total")
+        .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.total").value(2.99))
+        .andExpect(jsonPath("$.lines").doesNotExist())
+        .andExpect(jsonPath("$.createdAt").doesNotExist());
+  }
+
+  @Test
+  public void orderDetailCanBeSmileOrCbor() throws Exception {
+    when(userRepository.findByUsername(USERNAME)).thenReturn(user);
+    when(orderRepository.findByIdAndUserId(1l, user.getId())).thenReturn(Optional.of(order));
+    String json = mockMvc.perform(get(HISTORY_URL + "/" + USERNAME + "/1")
+        .header(HEADER_STRING, authenticationToken)).andReturn().getResponse().getContentAsString();
+    JsonNode expected = mapper.readTree(json);
+
+    for (ObjectMapper binary : Arrays.asList(new ObjectMapper(new SmileFactory()),
+        new ObjectMapper(new CBORFactory()))) {
+      String mediaType = binary.getFactory() instanceof SmileFactory
+          ? "application/x-jackson-smile" : "application/cbor";
+      byte[] body = mockMvc.perform(get(HISTORY_URL + "/" + USERNAME + "/1")
+          .accept(mediaType).param("fields", "id,lines")
+          .header(HEADER_STRING, authenticationToken)).andExpect(status().isOk())
+          .andExpect(content().contentType(mediaType)).andReturn().getResponse()
+          .getContentAsByteArray();
+      JsonNode decoded = binary.readTree(body);
+      assertEquals(expected.get("id"), decoded.get("id"));
+      assertEquals(expected.get("lines").toString(), decoded.get("lines").toString());
+      assertFalse(decoded.has("total"));
+      assertTrue(body.length < json.length());
+    }
+  }
 }
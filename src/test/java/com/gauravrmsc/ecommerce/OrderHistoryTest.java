@@ -0,0 +1,91 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.model.persistence.Cart;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.UserOrder;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.OrderRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import com.gauravrmsc.ecommerce.model.responses.OrderHistoryPage;
+import com.gauravrmsc.ecommerce.service.OrderService;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = {ECommerceApplication.class})
+public class OrderHistoryTest {
+  @Autowired
+  OrderService orderService;
+  @Autowired
+  OrderRepository orderRepository;
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  CartRepository cartRepository;
+  @Autowired
+  ItemRepository itemRepository;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  private User user;
+  private User otherUser;
+  private Long firstOrderId;
+
+  @BeforeEach
+  public void setup() {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    otherUser = transaction.execute(status -> createUser("other-" + System.nanoTime()));
+    user = transaction.execute(status -> {
+      User user = createUser("history-" + System.nanoTime());
+      Item roundWidget = itemRepository.findById(1l).get();
+      Item squareWidget = itemRepository.findById(2l).get();
+      user.getCart().addItem(roundWidget, 2);
+      user.getCart().addItem(squareWidget);
+      firstOrderId = orderRepository.save(UserOrder.createFromCart(user.getCart())).getId();
+      user.getCart().removeItem(squareWidget);
+      orderRepository.save(UserOrder.createFromCart(user.getCart()));
+      return user;
+    });
+  }
+
+  private User createUser(String username) {
+    User user = new User(username, "not-a-real-hash");
+    Cart cart = new Cart();
+    cartRepository.save(cart);
+    user.setCart(cart);
+    cart.setUser(user);
+    return userRepository.save(user);
+  }
+
+  @Test
+  public void historyIsPagedNewestFirstWithItemCounts() {
+    OrderHistoryPage first = orderService.getHistory(user.getId(), 0, 1);
+    assertEquals(2, first.getTotal());
+    assertEquals(1, first.getOrders().size());
+    assertEquals(2, first.getOrders().get(0).getItemCount());
+
+    OrderHistoryPage second = orderService.getHistory(user.getId(), 1, 1);
+    assertEquals(firstOrderId, second.getOrders().get(0).getId());
+    assertEquals(3, second.getOrders().get(0).getItemCount());
+  }
+
+  @Test
+  public void orderDetailIsLoadedWithItsLines() {
+    Optional<UserOrder> order = orderService.getOrder(user.getId(), firstOrderId);
+
+    assertTrue(order.isPresent());
+    // Read outside of any session: the lines and items must already be loaded.
+    assertEquals(2, order.get().getLines().size());
+    assertEquals("Round Widget", order.get().getLines().get(0).getItem().getName());
+    assertFalse(orderService.getOrder(otherUser.getId(), firstOrderId).isPresent());
+  }
+}
@@ -0,0 +1,100 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.security.BCryptStrength;
+import com.gauravrmsc.ecommerce.security.HashingCapacityExceededException;
+import com.gauravrmsc.ecommerce.security.PasswordHashingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordHashingServiceTest {
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch started = new CountDownLatch(1);
+  private BCryptPasswordEncoder blockingEncoder;
+  private PasswordHashingService hashingService;
+
+  @BeforeEach
+  public void setup() {
+    blockingEncoder = new BCryptPasswordEncoder(4) {
+      @Override
+      public String encode(CharSequence rawPassword) {
+        started.countDown();
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.encode(rawPassword);
+      }
+    };
+    hashingService = new PasswordHashingService(blockingEncoder, BCryptStrength.fixed(4),
+        new SimpleMeterRegistry(), 1, 1, 10_000, 250, 7);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    release.countDown();
+    hashingService.destroy();
+  }
+
+  @Test
+  public void saturatedPoolFailsFast() throws Exception {
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> hashingService.encode("first-password"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> hashingService.encode("second-password"));
+    while (hashingService.getQueueDepth() == 0) {
+      Thread.sleep(5);
+    }
+
+    HashingCapacityExceededException rejected = assertThrows(HashingCapacityExceededException.class,
+        () -> hashingService.encode("third-password"));
+    assertEquals(7, rejected.getRetryAfterSeconds());
+
+    release.countDown();
+    BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+    assertTrue(encoder.matches("first-password", running.get(5, TimeUnit.SECONDS)));
+    assertTrue(encoder.matches("second-password", queued.get(5, TimeUnit.SECONDS)));
+  }
+
+  @Test
+  public void waitIsBoundedByBudget() {
+    PasswordHashingService impatient = new PasswordHashingService(blockingEncoder,
+        BCryptStrength.fixed(4), new SimpleMeterRegistry(), 1, 0, 100, 50, 3);
+    try {
+      long start = System.nanoTime();
+      HashingCapacityExceededException timedOut = assertThrows(
+          HashingCapacityExceededException.class, () -> impatient.encode("slow-password"));
+      assertEquals(3, timedOut.getRetryAfterSeconds());
+      assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5_000);
+    } finally {
+      impatient.destroy();
+    }
+  }
+
+  @Test
+  public void onlyHashesWithALowerCostNeedRehash() {
+    assertFalse(hashingService.needsRehash(new BCryptPasswordEncoder(5).encode("password")));
+    PasswordHashingService stronger = new PasswordHashingService(blockingEncoder,
+        BCryptStrength.fixed(5), new SimpleMeterRegistry(), 1, 1, 10_000, 250, 7);
+    try {
+      assertTrue(stronger.needsRehash("$2a$04$abcdefghijklmnopqrstuu5R0yGf8GqvMFEdGGpwDk5UO6ar3x0Gi"));
+    } finally {
+      stronger.destroy();
+    }
+    assertFalse(hashingService.needsRehash("$2a$04$abcdefghijklmnopqrstuu5R0yGf8GqvMFEdGGpwDk5UO6ar3x0Gi"));
+    assertFalse(hashingService.needsRehash("not-a-bcrypt-hash"));
+    assertFalse(hashingService.needsRehash(null));
+  }
+}
@@ -0,0 +1,118 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.reactive.ReactiveCatalogServer;
+import com.gauravrmsc.ecommerce.reactive.ReactiveItemHandler;
+import com.gauravrmsc.ecommerce.reactive.ReactiveItemRepository;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = {ECommerceApplication.class}, properties = {
+    "reactive-catalog.enabled=true", "reactive-catalog.port=0", "reactive-catalog.page-size=50"})
+public class ReactiveCatalogTest {
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
+
+  @Autowired
+  ReactiveCatalogServer server;
+  @Autowired
+  ReactiveItemRepository reactiveItemRepository;
+  @Autowired
+  ItemRepository itemRepository;
+  private WebTestClient client;
+  private final List<Item> added = new ArrayList<>();
+
+  @BeforeEach
+  public void setup() {
+    client = WebTestClient.bindToServer().baseUrl("http://localhost:" + server.getPort())
+        .codecs(codecs -> codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(
+            new ObjectMapper(), MediaType.APPLICATION_JSON, ReactiveItemHandler.APPLICATION_NDJSON)))
+        .build();
+    String prefix = UUID.randomUUID().toString();
+    for (int i = 0; i < 120; i++) {
+      added.add(new Item(null, prefix + " widget " + i, new BigDecimal("1.50"), "A widget"));
+    }
+    itemRepository.saveAll(added);
+  }
+
+  @AfterEach
+  public void cleanup() {
+    itemRepository.deleteAll(added);
+  }
+
+  @Test
+  public void requiresBearerToken() {
+    client.get().uri("/api/item/1").exchange().expectStatus().isUnauthorized();
+    client.get().uri("/api/item/1").header(HEADER_STRING, TOKEN_PREFIX + "not-a-token").exchange()
+        .expectStatus().isUnauthorized();
+  }
+
+  @Test
+  public void readsItemsByIdAndName() {
+    client.get().uri("/api/item/1").header(HEADER_STRING, authenticationToken).exchange()
+        .expectStatus().isOk()
+        .expectBody().jsonPath("$.name").isEqualTo("Round Widget")
+        .jsonPath("$.price").isEqualTo(2.99);
+    client.get().uri("/api/item/999999").header(HEADER_STRING, authenticationToken).exchange()
+        .expectStatus().isNotFound();
+    client.get().uri("/api/item/abc").header(HEADER_STRING, authenticationToken).exchange()
+        .expectStatus().isBadRequest();
+    client.get().uri("/api/item/name/Square Widget").header(HEADER_STRING, authenticationToken)
+        .exchange().expectStatus().isOk()
+        .expectBody().jsonPath("$[0].id").isEqualTo(2);
+  }
+
+  @Test
+  public void streamsTheCatalogueInIdOrderAcrossPages() {
+    long total = itemRepository.count();
+    List<Item> streamed = client.get().uri("/api/item")
+        .header(HEADER_STRING, authenticationToken).accept(ReactiveItemHandler.APPLICATION_NDJSON)
+        .exchange().expectStatus().isOk()
+        .expectHeader().contentTypeCompatibleWith(ReactiveItemHandler.APPLICATION_NDJSON)
+        .returnResult(Item.class).getResponseBody().collectList().block();
+    assertEquals(total, streamed.size());
+    for (int i = 1; i < streamed.size(); i++) {
+      assertTrue(streamed.get(i - 1).getId() < streamed.get(i).getId());
+    }
+
+    client.get().uri("/api/item").header(HEADER_STRING, authenticationToken)
+        .accept(MediaType.APPLICATION_JSON).exchange().expectStatus().isOk()
+        .expectBody().jsonPath("$.length()").isEqualTo((int) total);
+  }
+
+  @Test
+  public void streamFollowsDemand() {
+    StepVerifier.create(reactiveItemRepository.streamAll(), 0)
+        .expectSubscription()
+        .thenRequest(1)
+        .expectNextMatches(item -> item.getId() == 1)
+        .thenRequest(60)
+        .expectNextCount(60)
+        .thenCancel()
+        .verify();
+  }
+}
@@ -0,0 +1,147 @@
+package com.gauravrmsc.ecommerce;
+
+import com.auth0.jwt.JWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gauravrmsc.ecommerce.datasource.ReadYourWrites;
+import com.gauravrmsc.ecommerce.model.requests.CreateUserRequest;
+import com.gauravrmsc.ecommerce.model.requests.ModifyCartRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.Filter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The application's H2 database and a second one as its replica, with replication done by hand:
+ * {@link #replicate()} copies the primary.
+ */
+@SpringBootTest(classes = {ECommerceApplication.class}, properties = {"encoder.strength=4",
+    "replica-datasource.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+    "replica-datasource.read-your-writes-seconds=1"})
+@AutoConfigureMockMvc
+public class ReplicaRoutingTest {
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final long REPLICA_ONLY_ID = 900_000_001L;
+  @Autowired
+  MockMvc mockMvc;
+  @Autowired
+  MeterRegistry meterRegistry;
+  @Autowired
+  WebApplicationContext context;
+  @Autowired
+  ReadYourWrites readYourWrites;
+  private final JdbcTemplate primary = new JdbcTemplate(
+      new DriverManagerDataSource("jdbc:h2:mem:bootapp", "sa", ""));
+  private final JdbcTemplate replica = new JdbcTemplate(
+      new DriverManagerDataSource("jdbc:h2:mem:routing-replica", "sa", ""));
+
+  @Test
+  public void catalogueReadsGoToTheReplicaAndWritesToThePrimary() throws Exception {
+    replicate();
+    String name = "Replica only " + UUID.randomUUID();
+    replica.update("insert into item (id, name, price, description) values (?, ?, 1, 'x')",
+        REPLICA_ONLY_ID, name);
+    mockMvc.perform(get("/api/item/" + REPLICA_ONLY_ID).header(HEADER_STRING, token("gaurav")))
+        .andExpect(status().isOk()).andExpect(jsonPath("$.name").value(name));
+    assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+
+    String username = "writer-" + UUID.randomUUID();
+    mockMvc.perform(post("/api/user/create").contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(new CreateUserRequest(username, "password1",
+            "password1")))).andExpect(status().isOk());
+    assertEquals(1, countUsers(primary, username));
+    assertEquals(0, countUsers(replica, username));
+  }
+
+  @Test
+  public void usersReadTheirOwnWritesFromThePrimary() throws Exception {
+    String username = "reader-" + UUID.randomUUID();
+    mockMvc.perform(post("/api/user/create").contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(new CreateUserRequest(username, "password1",
+            "password1")))).andExpect(status().isOk());
+    replicate();
+
+    String token = token(username);
+    mockMvc.perform(post("/api/cart/addToCart").header(HEADER_STRING, token)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(mapper.writeValueAsString(new ModifyCartRequest(username, 1, 2))))
+        .andExpect(status().isOk());
+    Thread.sleep(1500);
+
+    // The write must be recorded before any of its response reaches the client, which may send
+    // its next read the moment it has the response.
+    AtomicReference<Boolean> recordedWhenSent = new AtomicReference<>();
+    Filter probe = (request, response, chain) -> chain.doFilter(request,
+        new HttpServletResponseWrapper((HttpServletResponse) response) {
+          @Override
+          public ServletOutputStream getOutputStream() throws IOException {
+            recordedWhenSent.compareAndSet(null, readYourWrites.wroteRecently(username));
+            return super.getOutputStream();
+          }
+
+          @Override
+          public PrintWriter getWriter() throws IOException {
+            recordedWhenSent.compareAndSet(null, readYourWrites.wroteRecently(username));
+            return super.getWriter();
+          }
+        });
+    MockMvc probedMockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity())
+        .addFilter(probe).build();
+    probedMockMvc.perform(post("/api/order/submit/" + username).header(HEADER_STRING, token))
+        .andExpect(status().isOk());
+    assertEquals(Boolean.TRUE, recordedWhenSent.get());
+    mockMvc.perform(get("/api/order/history/" + username).header(HEADER_STRING, token))
+        .andExpect(status().isOk()).andExpect(jsonPath("$.total").value(1));
+
+    // Once the window has passed the history is read from the replica, which has not caught up.
+    Thread.sleep(1500);
+    mockMvc.perform(get("/api/order/history/" + username).header(HEADER_STRING, token))
+        .andExpect(status().isOk()).andExpect(jsonPath("$.total").value(0));
+  }
+
+  private static long countUsers(JdbcTemplate database, String username) {
+    return database.queryForObject("select count(*) from \"USER\" where username = ?", Long.class,
+        username);
+  }
+
+  private void replicate() {
+    List<String> script = primary.queryForList("script nopasswords", String.class);
+    replica.execute("drop all objects");
+    script.forEach(replica::execute);
+  }
+
+  private static String token(String username) {
+    return TOKEN_PREFIX + JWT.create().withSubject(username)
+        .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+        .sign(HMAC512(SECRET.getBytes()));
+  }
+}
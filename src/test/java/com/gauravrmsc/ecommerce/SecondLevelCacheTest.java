@@ -0,0 +1,84 @@
+package com.gauravrmsc.ecommerce;
+
+import com.gauravrmsc.ecommerce.model.persistence.Item;
+import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.ItemRepository;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
+import java.math.BigDecimal;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = {ECommerceApplication.class})
+public class SecondLevelCacheTest {
+  @Autowired
+  UserRepository userRepository;
+  @Autowired
+  ItemRepository itemRepository;
+  @Autowired
+  EntityManagerFactory entityManagerFactory;
+  @Autowired
+  PlatformTransactionManager transactionManager;
+  private Statistics statistics;
+
+  @BeforeEach
+  public void setup() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+  }
+
+  @Test
+  public void repeatedUsernameLookupsHitTheCache() {
+    String username = "cached-" + System.nanoTime();
+    userRepository.save(new User(username, "hash"));
+    userRepository.findByUsername(username);
+
+    long naturalIdHits = statistics.getNaturalIdCacheHitCount();
+    long userHits = statistics.getDomainDataRegionStatistics("user").getHitCount();
+    long queries = statistics.getNaturalIdQueryExecutionCount();
+    User user = userRepository.findByUsername(username);
+
+    assertEquals(username, user.getUsername());
+    assertTrue(statistics.getNaturalIdCacheHitCount() > naturalIdHits);
+    assertTrue(statistics.getDomainDataRegionStatistics("user").getHitCount() > userHits);
+    assertEquals(queries, statistics.getNaturalIdQueryExecutionCount());
+  }
+
+  @Test
+  public void passwordUpdateIsVisibleThroughTheCache() {
+    String username = "rehash-" + System.nanoTime();
+    User user = userRepository.save(new User(username, "old-hash"));
+    userRepository.findByUsername(username);
+
+    assertEquals(1, userRepository.updatePassword(user.getId(), "new-hash"));
+
+    assertEquals("new-hash", userRepository.findByUsername(username).getPassword());
+  }
+
+  @Test
+  public void itemUpdateIsVisibleThroughTheCache() {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    Item item = itemRepository.save(
+        new Item(null, "Cached Widget", new BigDecimal("1.00"), "A widget that gets cached"));
+    itemRepository.findById(item.getId());
+
+    long itemHits = statistics.getDomainDataRegionStatistics("item").getHitCount();
+    transaction.execute(status -> {
+      itemRepository.findById(item.getId()).get().setPrice(new BigDecimal("2.00"));
+      return null;
+    });
+
+    BigDecimal price = itemRepository.findById(item.getId()).get().getPrice();
+    assertEquals(0, new BigDecimal("2.00").compareTo(price));
+    assertTrue(statistics.getDomainDataRegionStatistics("item").getHitCount() > itemHits);
+    itemRepository.deleteById(item.getId());
+  }
+}
@@ -1,10 +1,16 @@
 package com.gauravrmsc.ecommerce;
 
 
+import com.auth0.jwt.JWT;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gauravrmsc.ecommerce.model.persistence.User;
+import com.gauravrmsc.ecommerce.model.persistence.repositories.CartRepository;
 import com.gauravrmsc.ecommerce.model.persistence.repositories.UserRepository;
 import com.gauravrmsc.ecommerce.model.requests.CreateUserRequest;
+import com.gauravrmsc.ecommerce.security.HashingCapacityExceededException;
+import com.gauravrmsc.ecommerce.security.PasswordHashingService;
+import com.gauravrmsc.ecommerce.security.UserPrincipalCache;
+import java.util.Date;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +20,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.EXPIRATION_TIME;
 import static com.gauravrmsc.ecommerce.security.SecurityConstants.HEADER_STRING;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.SECRET;
+import static com.gauravrmsc.ecommerce.security.SecurityConstants.TOKEN_PREFIX;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -32,13 +46,20 @@ public class UserControllerTest {
 
   @MockBean
   UserRepository userRepository;
+  @MockBean
+  CartRepository cartRepository;
+  @SpyBean
+  PasswordHashingService passwordHashingService;
   @Autowired
   MockMvc mockMvc;
+  @Autowired
+  UserPrincipalCache userPrincipalCache;
   private static final String BASE_URL = "/api/user";
   private static final String FIND_USER_BY_ID_URL = BASE_URL + "/id";
   private static final String CREATE_USER_ACCOUNT_URL = BASE_URL + "/create";
-  private static final String authenticationToken =
-      "BearereyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9.eyJzdWIiOiJnYXVyYXYiLCJleHAiOjE1OTYxNjk0NDN9.xH82UbF3T_47uEYAo4m7QimX6CUo2XgnH3l7sSi5Olwdq_0zx9EtVrNKdIUfiOYbrlk7QU4dWlsdzg5CK46adw";
+  private static final String authenticationToken = TOKEN_PREFIX + JWT.create().withSubject("gaurav")
+      .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
+      .sign(HMAC512(SECRET.getBytes()));
   private static final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
   private static final ObjectMapper mapper = new ObjectMapper();
   private static User user;
@@ -47,6 +68,7 @@ public class UserControllerTest {
   public void setup() {
     String hashedPassword = encoder.encode("987654321");
     user = new User("gaurav", hashedPassword);
+    userPrincipalCache.invalidate("gaurav");
   }
 
   @Test
@@ -60,6 +82,19 @@ public class UserControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  public void rejectedHashingLeavesNoRows() throws Exception {
+    when(userRepository.findByUsername("gaurav")).thenReturn(null);
+    doThrow(new HashingCapacityExceededException(1)).when(passwordHashingService).encode(any());
+    CreateUserRequest createUserRequest = new CreateUserRequest("gaurav", "987654321", "987654321");
+    String requestBody = mapper.writeValueAsString(createUserRequest);
+    mockMvc
+        .perform(post(CREATE_USER_ACCOUNT_URL).content(requestBody).contentType("application/json"))
+        .andExpect(status().isServiceUnavailable());
+    verify(cartRepository, never()).save(any());
+    verify(userRepository, never()).save(any());
+  }
+
   @Test
   public void invalidCreateUserAccountRequestFails() throws Exception {
     CreateUserRequest createUserRequest = new CreateUserRequest("gaurav", "1234", "1234");
@@ -93,9 +128,14 @@ public class UserControllerTest {
     //Get User Query for registered user returns user's details
     Long id = 1l;
     user.setId(id);
+    when(userRepository.findByUsername("gaurav")).thenReturn(user);
     when(userRepository.findById(id)).thenReturn(Optional.of(user));
     mockMvc.perform(get(FIND_USER_BY_ID_URL + "/1").header(HEADER_STRING, authenticationToken))
         .andExpect(status().isOk()).andExpect(content().string(mapper.writeValueAsString(user)));
+
+    //Another user's id is forbidden
+    mockMvc.perform(get(FIND_USER_BY_ID_URL + "/2").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isForbidden());
   }
 
   @Test
@@ -113,7 +153,12 @@ public class UserControllerTest {
     Long id = 1l;
     user.setId(id);
     when(userRepository.findByUsername("gaurav")).thenReturn(user);
+    when(userRepository.findById(id)).thenReturn(Optional.of(user));
     mockMvc.perform(get(BASE_URL + "/gaurav").header(HEADER_STRING, authenticationToken))
         .andExpect(status().isOk()).andExpect(content().string(mapper.writeValueAsString(user)));
+
+    //Another user's account is forbidden
+    mockMvc.perform(get(BASE_URL + "/someone-else").header(HEADER_STRING, authenticationToken))
+        .andExpect(status().isForbidden());
   }
 }
@@ -0,0 +1,65 @@
+package com.gauravrmsc.ecommerce;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(classes = {ECommerceApplication.class},
+    webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+    properties = {"virtual-threads.enabled=true"})
+public class VirtualThreadConfigTest {
+  @Autowired
+  ServletWebServerApplicationContext context;
+  @Autowired
+  TestRestTemplate restTemplate;
+
+  @Test
+  public void installsTheExecutorOnTomcat() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Http11NioProtocol protocol = new Http11NioProtocol();
+    new VirtualThreadConfig(executor).virtualThreadProtocolHandlerCustomizer().customize(protocol);
+    assertSame(executor, protocol.getExecutor());
+    executor.shutdown();
+  }
+
+  /** Virtual threads where the JVM and Tomcat support them, Tomcat's own pool everywhere else. */
+  @Test
+  public void requestsRunOnVirtualThreadsOnlyWhereSupported() throws Exception {
+    boolean supported = supportsVirtualThreads() && VirtualThreadConfig.tomcatLocksWithoutMonitors();
+    Executor executor = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector()
+        .getProtocolHandler().getExecutor();
+    CompletableFuture<Thread> thread = new CompletableFuture<>();
+    executor.execute(() -> thread.complete(Thread.currentThread()));
+    assertEquals(supported, isVirtual(thread.get(10, TimeUnit.SECONDS)));
+
+    assertEquals(HttpStatus.OK,
+        restTemplate.getForEntity("/actuator/health", String.class).getStatusCode());
+  }
+
+  private static boolean supportsVirtualThreads() {
+    try {
+      Thread.class.getMethod("ofVirtual");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static boolean isVirtual(Thread thread) throws Exception {
+    return supportsVirtualThreads()
+        && (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+  }
+}